@@ -49,6 +49,10 @@ export default function CartDrawer({ isOpen, onClose }: CartDrawerProps) {
         alert("¡Pedido realizado con éxito!");
         clearCart();
         onClose();
+      } else if (response.status === 202) {
+        alert("¡Pedido recibido! Lo estamos procesando y aparecerá en tus pedidos en breve.");
+        clearCart();
+        onClose();
       }
     } catch (error: any) {
       console.error("Error al procesar la orden:", error);
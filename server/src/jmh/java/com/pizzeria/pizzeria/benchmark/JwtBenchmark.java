@@ -0,0 +1,49 @@
+package com.pizzeria.pizzeria.benchmark;
+
+import com.pizzeria.pizzeria.security.JwtUtils;
+import com.pizzeria.pizzeria.security.UserDetailsImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+    private static final String SECRET = "fPBONXNkfjmNr6jipYHgpCQQD5CISQlIXmVBZWNXjJA=";
+
+    private JwtUtils jwtUtils;
+    private UserDetailsImpl principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        principal = new UserDetailsImpl(1L, "carlos_pizzas", "carlos@pizzeria.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtUtils.generateJwtCookie(principal).getValue();
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtCookie(principal).getValue();
+    }
+
+    @Benchmark
+    public String validate() {
+        return jwtUtils.parseClaims(token).getSubject();
+    }
+
+    @Benchmark
+    public String validatePerRequestParser() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+}
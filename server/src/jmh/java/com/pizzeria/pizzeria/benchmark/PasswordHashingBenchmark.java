@@ -0,0 +1,36 @@
+package com.pizzeria.pizzeria.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class PasswordHashingBenchmark {
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("carlos123");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("carlos123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("carlos123", hash);
+    }
+}
@@ -0,0 +1,61 @@
+package com.pizzeria.pizzeria.benchmark;
+
+import com.pizzeria.pizzeria.PizzeriaApplication;
+import com.pizzeria.pizzeria.dto.order.OrderCreatedResponse;
+import com.pizzeria.pizzeria.dto.order.OrderItemRequest;
+import com.pizzeria.pizzeria.dto.order.OrderRequest;
+import com.pizzeria.pizzeria.model.Pizza;
+import com.pizzeria.pizzeria.repository.PizzaRepository;
+import com.pizzeria.pizzeria.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlaceOrderBenchmark {
+    @Param({"1", "10", "100"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PizzeriaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "spring.datasource.url=jdbc:h2:mem:bench_" + items + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .run();
+        orderService = context.getBean(OrderService.class);
+
+        List<Pizza> menu = context.getBean(PizzaRepository.class).findByAvailableTrue();
+        List<OrderItemRequest> lines = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            OrderItemRequest line = new OrderItemRequest();
+            line.setPizzaId(menu.get(i % menu.size()).getId());
+            line.setQuantity(1 + i % 3);
+            lines.add(line);
+        }
+        request = new OrderRequest();
+        request.setItems(lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderCreatedResponse placeOrder() {
+        return orderService.placeOrder(request, "carlos_pizzas");
+    }
+}
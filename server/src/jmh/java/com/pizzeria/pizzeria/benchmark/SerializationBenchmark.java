@@ -0,0 +1,58 @@
+package com.pizzeria.pizzeria.benchmark;
+
+import com.pizzeria.pizzeria.dto.order.OrderItemResponse;
+import com.pizzeria.pizzeria.dto.order.OrderResponse;
+import com.pizzeria.pizzeria.dto.pizza.PizzaResponse;
+import com.pizzeria.pizzeria.model.Money;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+    @Param({"10", "100"})
+    public int orders;
+
+    private ObjectWriter writer;
+    private List<OrderResponse> history;
+    private List<PizzaResponse> menu;
+
+    @Setup
+    public void setUp() {
+        writer = JsonMapper.builder().build().writer();
+
+        menu = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            menu.add(new PizzaResponse((long) i, "Pizza " + i, "Tomato, mozzarella and topping " + i,
+                    Money.toDecimal(1200 + i * 50L), "/images/pizza-" + i + ".png", true));
+        }
+
+        history = new ArrayList<>();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (int i = 0; i < orders; i++) {
+            List<OrderItemResponse> items = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                PizzaResponse pizza = menu.get((i + j) % menu.size());
+                items.add(new OrderItemResponse(pizza.id(), pizza.name(), pizza.imageUrl(), pizza.price(), 1 + j));
+            }
+            history.add(new OrderResponse((long) i, Money.toDecimal(4500), "DELIVERED", createdAt.plusHours(i), items));
+        }
+    }
+
+    @Benchmark
+    public byte[] orderHistory() {
+        return writer.writeValueAsBytes(history);
+    }
+
+    @Benchmark
+    public byte[] menu() {
+        return writer.writeValueAsBytes(menu);
+    }
+}
@@ -0,0 +1,40 @@
+package com.pizzeria.pizzeria.loadtest;
+
+import java.util.Arrays;
+
+final class LatencyStats {
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long nanos, boolean failed) {
+        if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+        samples[count++] = nanos;
+        if (failed) errors++;
+    }
+
+    void addAll(LatencyStats other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samples[i], false);
+        }
+        errors += other.errors;
+    }
+
+    Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Summary(count, errors, count / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    record Summary(long requests, long errors, double throughput, double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+}
@@ -0,0 +1,298 @@
+package com.pizzeria.pizzeria.loadtest;
+
+import com.pizzeria.pizzeria.PizzeriaApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public final class LoadTest {
+    static final JsonMapper JSON = JsonMapper.builder().build();
+
+    enum Operation {
+        MENU("GET /api/pizzas"),
+        LOGIN("POST /api/auth/login"),
+        ORDER("POST /api/orders"),
+        HISTORY("GET /api/orders/my-orders/page");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Map<Operation, Integer> mix;
+    private final List<String[]> credentials;
+    private final List<Long> pizzaIds;
+    private final long thinkMillis;
+
+    private LoadTest(String baseUrl, Map<Operation, Integer> mix, List<String[]> credentials, long thinkMillis) throws Exception {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.mix = mix;
+        this.credentials = credentials;
+        this.thinkMillis = thinkMillis;
+        this.pizzaIds = loadMenu();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+            } else if (arg.contains("=")) {
+                options.put(arg.substring(0, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        int users = Integer.parseInt(options.getOrDefault("users", "32"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Path output = Path.of(options.getOrDefault("output", "target/loadtest-result.json"));
+
+        ConfigurableApplicationContext app = null;
+        String baseUrl = options.get("baseUrl");
+        if (baseUrl == null) {
+            app = new SpringApplicationBuilder(PizzeriaApplication.class)
+                    .properties("server.port=0",
+                            "logging.level.root=WARN",
+                            "spring.jpa.properties.hibernate.generate_statistics=false",
+                            "management.endpoints.web.exposure.include=health,metrics",
+                            "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                    .run(springArgs.toArray(String[]::new));
+            baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        }
+        String managementUrl = options.getOrDefault("managementUrl", app != null
+                && app.getEnvironment().containsProperty("local.management.port")
+                ? "http://localhost:" + app.getEnvironment().getProperty("local.management.port")
+                : baseUrl);
+
+        try {
+            if ("updates".equals(options.get("scenario"))) {
+                StatusUpdatesScenario scenario = new StatusUpdatesScenario(baseUrl, managementUrl,
+                        StatusUpdatesScenario.Mode.valueOf(options.getOrDefault("updates", "sse").toUpperCase()),
+                        Long.parseLong(options.getOrDefault("pollMs", "2000")),
+                        Long.parseLong(options.getOrDefault("advanceMs", "1000")),
+                        parseCredentials(options.getOrDefault("credentials", "carlos_pizzas:carlos123")),
+                        options.getOrDefault("admin", "admin:admin123").split(":", 2));
+
+                System.out.printf("Status updates against %s: %d users, %ds warmup, %ds measured%n",
+                        baseUrl, users, warmup.toSeconds(), duration.toSeconds());
+                Map<String, Object> result = scenario.run(users, warmup, duration);
+
+                StatusUpdatesScenario.print(result);
+                Files.createDirectories(output.toAbsolutePath().getParent());
+                JSON.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), result);
+                System.out.println("Results written to " + output.toAbsolutePath());
+                return;
+            }
+
+            LoadTest test = new LoadTest(baseUrl,
+                    parseMix(options.getOrDefault("mix", "menu:60,login:5,order:15,history:20")),
+                    parseCredentials(options.getOrDefault("credentials", "carlos_pizzas:carlos123,admin:admin123")),
+                    Long.parseLong(options.getOrDefault("thinkMs", "0")));
+
+            System.out.printf("Load test against %s: %d users, %ds warmup, %ds measured, mix %s%n",
+                    baseUrl, users, warmup.toSeconds(), duration.toSeconds(), test.mix);
+            Map<Operation, LatencyStats.Summary> report = test.run(users, warmup, duration, seed);
+
+            print(report);
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            JSON.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), toJson(report));
+            System.out.println("Results written to " + output.toAbsolutePath());
+        } finally {
+            if (app != null) app.close();
+        }
+    }
+
+    private Map<Operation, LatencyStats.Summary> run(int users, Duration warmup, Duration duration, long seed) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        List<Future<Map<Operation, LatencyStats>>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            SplittableRandom seeds = new SplittableRandom(seed);
+            for (int i = 0; i < users; i++) {
+                String[] user = credentials.get(i % credentials.size());
+                SplittableRandom random = seeds.split();
+                workers.add(executor.submit(() -> work(user, random, measureFrom, measureUntil)));
+            }
+        }
+
+        Map<Operation, LatencyStats> merged = new EnumMap<>(Operation.class);
+        for (Future<Map<Operation, LatencyStats>> worker : workers) {
+            worker.get().forEach((operation, stats) ->
+                    merged.computeIfAbsent(operation, key -> new LatencyStats()).addAll(stats));
+        }
+
+        Map<Operation, LatencyStats.Summary> report = new EnumMap<>(Operation.class);
+        merged.forEach((operation, stats) -> report.put(operation, stats.summarize(duration.toNanos() / 1e9)));
+        return report;
+    }
+
+    private Map<Operation, LatencyStats> work(String[] user, SplittableRandom random, long measureFrom, long measureUntil)
+            throws InterruptedException {
+        Map<Operation, LatencyStats> stats = new EnumMap<>(Operation.class);
+        String cookie = login(user);
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        while (System.nanoTime() < measureUntil) {
+            Operation operation = pick(random.nextInt(totalWeight));
+            long started = System.nanoTime();
+            int status;
+            try {
+                HttpResponse<String> response = client.send(request(operation, cookie, user, random),
+                        HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                if (operation == Operation.LOGIN && status == 200) cookie = jwtCookie(response, cookie);
+            } catch (IOException ex) {
+                status = -1;
+            }
+            long finished = System.nanoTime();
+
+            if (started >= measureFrom && finished <= measureUntil) {
+                stats.computeIfAbsent(operation, key -> new LatencyStats()).record(finished - started, status < 200 || status >= 300);
+            }
+            if (thinkMillis > 0) Thread.sleep(thinkMillis);
+        }
+        return stats;
+    }
+
+    private HttpRequest request(Operation operation, String cookie, String[] user, SplittableRandom random) {
+        return switch (operation) {
+            case MENU -> HttpRequest.newBuilder(uri("/api/pizzas"))
+                    .header("Accept-Encoding", "gzip")
+                    .GET().build();
+            case LOGIN -> json(HttpRequest.newBuilder(uri("/api/auth/login")), loginBody(user));
+            case ORDER -> json(HttpRequest.newBuilder(uri("/api/orders")).header("Cookie", cookie), orderBody(random));
+            case HISTORY -> HttpRequest.newBuilder(uri("/api/orders/my-orders/page?size=20"))
+                    .header("Cookie", cookie)
+                    .GET().build();
+        };
+    }
+
+    private String login(String[] user) {
+        try {
+            HttpResponse<String> response = client.send(
+                    json(HttpRequest.newBuilder(uri("/api/auth/login")), loginBody(user)),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login for " + user[0] + " failed with " + response.statusCode());
+            }
+            return jwtCookie(response, null);
+        } catch (IOException | InterruptedException ex) {
+            throw new IllegalStateException("Login for " + user[0] + " failed", ex);
+        }
+    }
+
+    private List<Long> loadMenu() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/pizzas")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode pizza : JSON.readTree(response.body())) {
+            if (pizza.path("available").asBoolean(true)) ids.add(pizza.path("id").asLong());
+        }
+        if (ids.isEmpty()) throw new IllegalStateException("The menu has no available pizzas");
+        return ids;
+    }
+
+    private String orderBody(SplittableRandom random) {
+        StringBuilder body = new StringBuilder("{\"items\":[");
+        int lines = 1 + random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) body.append(',');
+            body.append("{\"pizzaId\":").append(pizzaIds.get(random.nextInt(pizzaIds.size())))
+                    .append(",\"quantity\":").append(1 + random.nextInt(3)).append('}');
+        }
+        return body.append("]}").toString();
+    }
+
+    static String loginBody(String[] user) {
+        return JSON.writeValueAsString(Map.of("username", user[0], "password", user[1]));
+    }
+
+    static HttpRequest json(HttpRequest.Builder builder, String body) {
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    static String jwtCookie(HttpResponse<?> response, String fallback) {
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(header -> header.startsWith("pizzeria-jwt="))
+                .map(header -> header.substring(0, header.indexOf(';') > 0 ? header.indexOf(';') : header.length()))
+                .findFirst()
+                .orElse(fallback);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private Operation pick(int roll) {
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) return entry.getKey();
+        }
+        throw new IllegalStateException("Empty traffic mix");
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] entry = part.trim().split(":");
+            int weight = Integer.parseInt(entry[1]);
+            if (weight > 0) mix.put(Operation.valueOf(entry[0].toUpperCase()), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("mix must give at least one operation a weight");
+        return mix;
+    }
+
+    private static List<String[]> parseCredentials(String value) {
+        return Arrays.stream(value.split(","))
+                .map(pair -> pair.trim().split(":", 2))
+                .toList();
+    }
+
+    private static void print(Map<Operation, LatencyStats.Summary> report) {
+        System.out.printf("%-32s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        report.forEach((operation, summary) -> System.out.printf("%-32s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                operation.label, summary.requests(), summary.errors(), summary.throughput(),
+                summary.p50Ms(), summary.p95Ms(), summary.p99Ms(), summary.maxMs()));
+    }
+
+    private static Map<String, LatencyStats.Summary> toJson(Map<Operation, LatencyStats.Summary> report) {
+        Map<String, LatencyStats.Summary> json = new LinkedHashMap<>();
+        report.forEach((operation, summary) -> json.put(operation.label, summary));
+        return json;
+    }
+}
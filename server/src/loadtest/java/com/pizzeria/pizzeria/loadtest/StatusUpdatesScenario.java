@@ -0,0 +1,282 @@
+package com.pizzeria.pizzeria.loadtest;
+
+import tools.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static com.pizzeria.pizzeria.loadtest.LoadTest.JSON;
+
+/**
+ * Customers place an order and wait until they see it delivered, either over the SSE stream or by polling
+ * its status, while an admin advances the kitchen board. Reports how long a status change takes to reach
+ * the customer and how many JDBC statements the server ran per request and per delivered order.
+ */
+final class StatusUpdatesScenario {
+    private static final String METRIC = "hibernate.statements.per.request";
+    private static final String DELIVERED = "DELIVERED";
+
+    enum Mode { SSE, POLL }
+
+    private final String baseUrl;
+    private final String managementUrl;
+    private final HttpClient client;
+    private final Mode mode;
+    private final long pollMillis;
+    private final long advanceMillis;
+    private final List<String[]> customers;
+    private final String[] admin;
+    private final long pizzaId;
+
+    private final Map<Long, Long> deliveredAt = new ConcurrentHashMap<>();
+
+    StatusUpdatesScenario(String baseUrl, String managementUrl, Mode mode, long pollMillis, long advanceMillis,
+                          List<String[]> customers, String[] admin) throws IOException, InterruptedException {
+        this.baseUrl = baseUrl;
+        this.managementUrl = managementUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.mode = mode;
+        this.pollMillis = pollMillis;
+        this.advanceMillis = advanceMillis;
+        this.customers = customers;
+        this.admin = admin;
+
+        HttpResponse<String> menu = client.send(HttpRequest.newBuilder(uri(baseUrl, "/api/pizzas")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        this.pizzaId = JSON.readTree(menu.body()).get(0).path("id").asLong();
+    }
+
+    Map<String, Object> run(int users, Duration warmup, Duration duration) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        String adminCookie = login(admin);
+        LongAdder deliveries = new LongAdder();
+
+        Map<String, double[]> before;
+        Map<String, double[]> after;
+        List<Future<LatencyStats>> watchers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Void> kitchen = executor.submit(() -> kitchen(adminCookie, measureUntil));
+            for (int i = 0; i < users; i++) {
+                String[] customer = customers.get(i % customers.size());
+                watchers.add(executor.submit(() -> watch(customer, measureFrom, measureUntil, deliveries)));
+            }
+
+            TimeUnit.NANOSECONDS.sleep(measureFrom - System.nanoTime());
+            before = statements(adminCookie);
+            TimeUnit.NANOSECONDS.sleep(measureUntil - System.nanoTime());
+            after = statements(adminCookie);
+            kitchen.get();
+        }
+
+        LatencyStats notifyDelay = new LatencyStats();
+        for (Future<LatencyStats> watcher : watchers) {
+            notifyDelay.addAll(watcher.get());
+        }
+
+        Map<String, Object> perUri = new LinkedHashMap<>();
+        double requests = 0;
+        double statements = 0;
+        for (Map.Entry<String, double[]> entry : after.entrySet()) {
+            double[] start = before.getOrDefault(entry.getKey(), new double[2]);
+            double count = entry.getValue()[0] - start[0];
+            double total = entry.getValue()[1] - start[1];
+            if (count == 0) continue;
+
+            requests += count;
+            statements += total;
+            perUri.put(entry.getKey(), Map.of("requests", (long) count, "statements", (long) total,
+                    "statementsPerRequest", total / count));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", mode.name().toLowerCase());
+        result.put("users", users);
+        result.put("pollMs", mode == Mode.POLL ? pollMillis : null);
+        result.put("deliveredOrdersObserved", deliveries.sum());
+        result.put("requests", (long) requests);
+        result.put("statements", (long) statements);
+        result.put("statementsPerRequest", requests == 0 ? 0 : statements / requests);
+        result.put("statementsPerDeliveredOrder", deliveries.sum() == 0 ? 0 : statements / deliveries.sum());
+        result.put("notifyDelay", notifyDelay.summarize(duration.toNanos() / 1e9));
+        result.put("byUri", perUri);
+        return result;
+    }
+
+    static void print(Map<String, Object> result) {
+        System.out.printf("Status updates over %s: %d delivered orders observed%n", result.get("mode"),
+                result.get("deliveredOrdersObserved"));
+        System.out.printf("%-40s %10s %12s %12s%n", "endpoint", "requests", "statements", "stmts/req");
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> byUri = (Map<String, Map<String, Object>>) result.get("byUri");
+        byUri.forEach((uri, row) -> System.out.printf("%-40s %10d %12d %12.2f%n",
+                uri, row.get("requests"), row.get("statements"), row.get("statementsPerRequest")));
+        System.out.printf("%-40s %10d %12d %12.2f%n", "all", result.get("requests"), result.get("statements"),
+                result.get("statementsPerRequest"));
+        System.out.printf("Statements per delivered order: %.2f%n", result.get("statementsPerDeliveredOrder"));
+
+        LatencyStats.Summary delay = (LatencyStats.Summary) result.get("notifyDelay");
+        System.out.printf("Delivered -> seen by customer: p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                delay.p50Ms(), delay.p95Ms(), delay.p99Ms(), delay.maxMs());
+    }
+
+    private Void kitchen(String cookie, long until) throws Exception {
+        while (System.nanoTime() < until) {
+            HttpResponse<String> board = client.send(get(baseUrl, "/api/admin/kitchen/orders", cookie),
+                    HttpResponse.BodyHandlers.ofString());
+            if (board.statusCode() == 200) {
+                for (JsonNode order : JSON.readTree(board.body())) {
+                    long id = order.path("id").asLong();
+                    HttpResponse<String> advanced = client.send(HttpRequest.newBuilder(
+                                    uri(baseUrl, "/api/admin/kitchen/orders/" + id + "/advance"))
+                            .header("Cookie", cookie)
+                            .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+                    if (advanced.statusCode() == 200 && DELIVERED.equals(JSON.readTree(advanced.body()).path("status").asString())) {
+                        deliveredAt.put(id, System.nanoTime());
+                    }
+                }
+            }
+            Thread.sleep(advanceMillis);
+        }
+        return null;
+    }
+
+    private LatencyStats watch(String[] customer, long measureFrom, long measureUntil, LongAdder deliveries)
+            throws Exception {
+        LatencyStats stats = new LatencyStats();
+        String cookie = login(customer);
+        BlockingQueue<JsonNode> events = new LinkedBlockingQueue<>();
+        Stream<String> stream = mode == Mode.SSE ? subscribe(cookie, events) : null;
+
+        try {
+            while (System.nanoTime() < measureUntil) {
+                HttpResponse<String> created = client.send(LoadTest.json(HttpRequest.newBuilder(uri(baseUrl, "/api/orders"))
+                                .header("Cookie", cookie), "{\"items\":[{\"pizzaId\":" + pizzaId + ",\"quantity\":1}]}"),
+                        HttpResponse.BodyHandlers.ofString());
+                if (created.statusCode() != 201) throw new IllegalStateException("Order failed with " + created.statusCode());
+                JsonNode order = JSON.readTree(created.body());
+
+                boolean seen = mode == Mode.SSE
+                        ? awaitEvent(events, order.path("id").asLong(), measureUntil)
+                        : awaitPoll(cookie, order.path("reference").asString(), measureUntil);
+                long now = System.nanoTime();
+                Long delivered = deliveredAt.remove(order.path("id").asLong());
+                if (seen && now >= measureFrom && now <= measureUntil) {
+                    deliveries.increment();
+                    if (delivered != null) stats.record(Math.max(0, now - delivered), false);
+                }
+            }
+        } finally {
+            if (stream != null) stream.close();
+        }
+        return stats;
+    }
+
+    private Stream<String> subscribe(String cookie, BlockingQueue<JsonNode> events) throws Exception {
+        HttpResponse<Stream<String>> response = client.send(HttpRequest.newBuilder(uri(baseUrl, "/api/orders/events"))
+                .header("Cookie", cookie)
+                .header("Accept", "text/event-stream")
+                .GET().build(), HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) throw new IllegalStateException("Subscribe failed with " + response.statusCode());
+
+        Stream<String> lines = response.body();
+        Thread.ofVirtual().start(() -> {
+            try {
+                lines.filter(line -> line.startsWith("data:"))
+                        .forEach(line -> events.add(JSON.readTree(line.substring(5))));
+            } catch (RuntimeException closed) {
+                // stream closed at the end of the run
+            }
+        });
+        return lines;
+    }
+
+    private static boolean awaitEvent(BlockingQueue<JsonNode> events, long orderId, long until) throws InterruptedException {
+        while (true) {
+            JsonNode event = events.poll(Math.max(1, until - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (event == null) return false;
+            if (event.path("id").asLong() == orderId && DELIVERED.equals(event.path("status").asString())) return true;
+        }
+    }
+
+    private boolean awaitPoll(String cookie, String reference, long until) throws Exception {
+        while (System.nanoTime() < until) {
+            Thread.sleep(pollMillis);
+            HttpResponse<String> status = client.send(get(baseUrl, "/api/orders/status/" + reference, cookie),
+                    HttpResponse.BodyHandlers.ofString());
+            if (status.statusCode() == 200 && DELIVERED.equals(JSON.readTree(status.body()).path("status").asString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, double[]> statements(String cookie) throws Exception {
+        Map<String, double[]> byUri = new LinkedHashMap<>();
+        HttpResponse<String> metric = client.send(get(managementUrl, "/actuator/metrics/" + METRIC, cookie),
+                HttpResponse.BodyHandlers.ofString());
+        if (metric.statusCode() == 404) return byUri;
+        if (metric.statusCode() != 200) throw new IllegalStateException("Reading " + METRIC + " failed with " + metric.statusCode());
+
+        Set<String> uris = new TreeSet<>();
+        for (JsonNode tag : JSON.readTree(metric.body()).path("availableTags")) {
+            if ("uri".equals(tag.path("tag").asString())) tag.path("values").forEach(value -> uris.add(value.asString()));
+        }
+        for (String uri : uris) {
+            HttpResponse<String> tagged = client.send(get(managementUrl, "/actuator/metrics/" + METRIC + "?tag=uri:"
+                    + URLEncoder.encode(uri, StandardCharsets.UTF_8), cookie), HttpResponse.BodyHandlers.ofString());
+            double[] values = new double[2];
+            for (JsonNode measurement : JSON.readTree(tagged.body()).path("measurements")) {
+                switch (measurement.path("statistic").asString()) {
+                    case "COUNT" -> values[0] = measurement.path("value").asDouble();
+                    case "TOTAL" -> values[1] = measurement.path("value").asDouble();
+                    default -> { }
+                }
+            }
+            byUri.put(uri, values);
+        }
+        return byUri;
+    }
+
+    private String login(String[] user) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(LoadTest.json(HttpRequest.newBuilder(uri(baseUrl, "/api/auth/login")),
+                LoadTest.loginBody(user)), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login for " + user[0] + " failed with " + response.statusCode());
+        }
+        return LoadTest.jwtCookie(response, null);
+    }
+
+    private static HttpRequest get(String base, String path, String cookie) {
+        return HttpRequest.newBuilder(uri(base, path)).header("Cookie", cookie).GET().build();
+    }
+
+    private static URI uri(String base, String path) {
+        return URI.create(base + path);
+    }
+}
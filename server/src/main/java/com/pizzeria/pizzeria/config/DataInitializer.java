@@ -4,7 +4,9 @@ import com.pizzeria.pizzeria.model.*;
 import com.pizzeria.pizzeria.repository.OrderRepository;
 import com.pizzeria.pizzeria.repository.PizzaRepository;
 import com.pizzeria.pizzeria.repository.UserRepository;
+import com.pizzeria.pizzeria.service.SalesAnalytics;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,6 +17,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+@Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class DataInitializer {
@@ -22,8 +25,10 @@ public class DataInitializer {
     private final PasswordEncoder passwordEncoder;
     private final PizzaRepository pizzaRepository;
     private final OrderRepository orderRepository;
+    private final SalesAnalytics salesAnalytics;
 
     @Bean
+    @org.springframework.core.annotation.Order(0)
     @Transactional
     CommandLineRunner initData() {
         return args -> {
@@ -35,14 +40,14 @@ public class DataInitializer {
                 admin.setRole(Role.ROLE_ADMIN);
 
                 userRepository.save(admin);
-                System.out.println("---------- ADMIN USER CREATED BY DEFAULT ----------");
+                log.info("Admin user created by default");
             }
 
             User customer = null;
             if (!userRepository.existsByUsername("carlos_pizzas")) {
                 customer = new User(null, "carlos_pizzas", "carlos@gmail.com", passwordEncoder.encode("carlos123"), Role.ROLE_USER);
                 customer = userRepository.save(customer);
-                System.out.println("---------- CUSTOMER USER CREATED ----------");
+                log.info("Customer user created");
             } else {
                 customer = userRepository.findByUsername("carlos_pizzas").orElse(null);
             }
@@ -50,12 +55,12 @@ public class DataInitializer {
             List<Pizza> savedPizzas = new ArrayList<>();
             if (pizzaRepository.count() == 0) {
                 List<Pizza> defaultPizzas = List.of(
-                        new Pizza(null, "Margherita", "Classic tomato sauce and mozzarella", 12.50, "https://res.cloudinary.com/da2yochcc/image/upload/v1766604841/pizzeria_app/i6oqtnbjliaobllbmkax.webp", true),
-                        new Pizza(null, "Pepperoni", "Tomato sauce and spicy pepperoni", 15.00, "https://res.cloudinary.com/da2yochcc/image/upload/v1766604837/pizzeria_app/orh59a9faatxz9iy6gpx.jpg", true),
-                        new Pizza(null, "Four Cheese", "Mozzarella, parmesan, gorgonzola, and fontina", 16.00, "https://res.cloudinary.com/da2yochcc/image/upload/v1766604837/pizzeria_app/pkc0plh4szranyoyf7f8.jpg", true)
+                        new Pizza(null, "Margherita", "Classic tomato sauce and mozzarella", 1250L, "https://res.cloudinary.com/da2yochcc/image/upload/v1766604841/pizzeria_app/i6oqtnbjliaobllbmkax.webp", true),
+                        new Pizza(null, "Pepperoni", "Tomato sauce and spicy pepperoni", 1500L, "https://res.cloudinary.com/da2yochcc/image/upload/v1766604837/pizzeria_app/orh59a9faatxz9iy6gpx.jpg", true),
+                        new Pizza(null, "Four Cheese", "Mozzarella, parmesan, gorgonzola, and fontina", 1600L, "https://res.cloudinary.com/da2yochcc/image/upload/v1766604837/pizzeria_app/pkc0plh4szranyoyf7f8.jpg", true)
                 );
                 savedPizzas = pizzaRepository.saveAll(defaultPizzas);
-                System.out.println("---------- DEFAULT PIZZAS CREATED ----------");
+                log.info("Default pizzas created");
             } else {
                 savedPizzas = pizzaRepository.findAll();
             }
@@ -67,16 +72,17 @@ public class DataInitializer {
                 order.setCreatedAt(LocalDateTime.now());
 
                 Pizza p1 = savedPizzas.get(0);
-                OrderItem item1 = new OrderItem(null, order, p1, 2, p1.getPrice());
+                OrderItem item1 = new OrderItem(null, order, p1, 2, p1.getPriceCents());
 
                 Pizza p2 = savedPizzas.get(1);
-                OrderItem item2 = new OrderItem(null, order, p2, 1, p2.getPrice());
+                OrderItem item2 = new OrderItem(null, order, p2, 1, p2.getPriceCents());
 
                 order.setItems(new ArrayList<>(List.of(item1, item2)));
-                order.setTotalAmount((p1.getPrice() * 2) + p2.getPrice());
+                order.setTotalAmountCents((p1.getPriceCents() * 2) + p2.getPriceCents());
 
                 orderRepository.save(order);
-                System.out.println("---------- TEST ORDER CREATED FOR CARLOS_PIZZAS ----------");
+                salesAnalytics.backfill();
+                log.info("Test order created for carlos_pizzas");
             }
         };
     }
@@ -0,0 +1,30 @@
+package com.pizzeria.pizzeria.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LogSamplingFilter extends Filter<ILoggingEvent> {
+    private final AtomicLong counter = new AtomicLong();
+
+    private int rate = 1;
+    private Level threshold = Level.WARN;
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (rate <= 1 || event.getLevel().isGreaterOrEqual(threshold)) return FilterReply.NEUTRAL;
+
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public void setThreshold(String threshold) {
+        this.threshold = Level.toLevel(threshold, Level.WARN);
+    }
+}
@@ -0,0 +1,99 @@
+package com.pizzeria.pizzeria.config;
+
+import com.pizzeria.pizzeria.security.BoundedPasswordEncoder;
+import com.pizzeria.pizzeria.security.PrincipalCache;
+import com.pizzeria.pizzeria.service.IdempotencyService;
+import com.pizzeria.pizzeria.service.KitchenBoard;
+import com.pizzeria.pizzeria.service.MenuCache;
+import com.pizzeria.pizzeria.service.OrderIngestionService;
+import com.pizzeria.pizzeria.service.OrderStatusHub;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder principalCacheMetrics(PrincipalCache cache) {
+        return registry -> {
+            FunctionCounter.builder("pizzeria.principal.cache.requests", cache, PrincipalCache::hitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("pizzeria.principal.cache.requests", cache, PrincipalCache::missCount)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("pizzeria.principal.cache.evictions", cache, PrincipalCache::evictionCount)
+                    .register(registry);
+            Gauge.builder("pizzeria.principal.cache.size", cache, PrincipalCache::size).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder menuCacheMetrics(MenuCache cache) {
+        return registry -> {
+            FunctionCounter.builder("pizzeria.menu.cache.requests", cache, MenuCache::hitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("pizzeria.menu.cache.requests", cache, MenuCache::missCount)
+                    .tag("result", "miss").register(registry);
+            FunctionTimer.builder("pizzeria.menu.cache.rebuilds", cache,
+                            MenuCache::rebuildCount, MenuCache::totalRebuildNanos, TimeUnit.NANOSECONDS)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(BoundedPasswordEncoder encoder) {
+        return registry -> {
+            FunctionTimer.builder("pizzeria.password.hashing", encoder,
+                            BoundedPasswordEncoder::hashCount, BoundedPasswordEncoder::totalHashNanos, TimeUnit.NANOSECONDS)
+                    .register(registry);
+            FunctionCounter.builder("pizzeria.password.hashing.rejections", encoder, BoundedPasswordEncoder::rejectionCount)
+                    .register(registry);
+            Gauge.builder("pizzeria.password.hashing.queued", encoder, BoundedPasswordEncoder::queuedCount)
+                    .register(registry);
+            Gauge.builder("pizzeria.password.hashing.active", encoder, BoundedPasswordEncoder::activeCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder orderMetrics(OrderStatusHub hub, KitchenBoard kitchenBoard, IdempotencyService idempotency,
+                                    ObjectProvider<OrderIngestionService> ingestion) {
+        return registry -> {
+            Gauge.builder("pizzeria.orders.events.connections", hub, OrderStatusHub::connectionCount)
+                    .register(registry);
+            Gauge.builder("pizzeria.kitchen.open.orders", kitchenBoard, KitchenBoard::size).register(registry);
+            FunctionCounter.builder("pizzeria.orders.idempotency.replays", idempotency, IdempotencyService::replayCount)
+                    .register(registry);
+            FunctionCounter.builder("pizzeria.orders.idempotency.waits", idempotency, IdempotencyService::waitCount)
+                    .register(registry);
+            Gauge.builder("pizzeria.orders.idempotency.in.flight", idempotency, IdempotencyService::inFlightCount)
+                    .register(registry);
+            ingestion.ifAvailable(service -> {
+                Gauge.builder("pizzeria.orders.ingestion.queued", service, OrderIngestionService::queuedCount)
+                        .register(registry);
+                FunctionCounter.builder("pizzeria.orders.ingestion.dead.lettered", service,
+                        OrderIngestionService::deadLetterCount).register(registry);
+            });
+        };
+    }
+
+    @Bean
+    public MeterBinder replicaMetrics(ObjectProvider<ReplicaDataSource> replicas) {
+        return registry -> replicas.ifAvailable(dataSource -> {
+            Gauge.builder("pizzeria.datasource.replicas.healthy", dataSource, ReplicaDataSource::healthyReplicaCount)
+                    .register(registry);
+            Gauge.builder("pizzeria.datasource.replicas.lag", dataSource, ReplicaDataSource::currentMaxLagSeconds)
+                    .baseUnit("seconds").register(registry);
+            FunctionCounter.builder("pizzeria.datasource.reads", dataSource, ReplicaDataSource::replicaConnectionCount)
+                    .tag("target", "replica").register(registry);
+            FunctionCounter.builder("pizzeria.datasource.reads", dataSource, ReplicaDataSource::primaryFallbackCount)
+                    .tag("target", "primary").register(registry);
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.pizzeria.pizzeria.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                               @Value("${app.datasource.replica.urls}") List<String> urls,
+                                               @Value("${app.datasource.replica.username}") String username,
+                                               @Value("${app.datasource.replica.password}") String password,
+                                               @Value("${app.datasource.replica.pool-size:10}") int poolSize,
+                                               @Value("${app.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+                                               @Value("${app.datasource.replica.max-lag:5s}") Duration maxLag) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url);
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setReadOnly(true);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, lagQuery, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+}
@@ -0,0 +1,145 @@
+package com.pizzeria.pizzeria.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final String LAG_COLUMN = "Seconds_Behind_Source";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, String lagQuery, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+        for (DataSource replica : replicas) {
+            this.replicas.add(new Replica("replica-" + (this.replicas.size() + 1), replica));
+        }
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toSeconds();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(target -> target.getConnection(username, password));
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-ms:5000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            Long lag = probe(replica.dataSource);
+            boolean healthy = lag != null && lag <= maxLagSeconds;
+            if (healthy != replica.healthy) {
+                log.warn("{} is now {} (lag {}s, limit {}s)", replica.name,
+                        healthy ? "in rotation" : "out of rotation", lag, maxLagSeconds);
+            }
+            replica.lagSeconds = lag != null ? lag : -1;
+            replica.healthy = healthy;
+        }
+    }
+
+    public int healthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    public long currentMaxLagSeconds() {
+        return replicas.stream().mapToLong(replica -> replica.lagSeconds).max().orElse(0);
+    }
+
+    public long replicaConnectionCount() {
+        return replicaConnections.sum();
+    }
+
+    public long primaryFallbackCount() {
+        return primaryFallbacks.sum();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+
+    private Connection connect(ConnectionOpener opener) throws SQLException {
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (!replica.healthy) continue;
+
+            try {
+                Connection connection = opener.open(replica.dataSource);
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException ex) {
+                replica.healthy = false;
+                log.warn("{} is unreachable, routing reads elsewhere: {}", replica.name, ex.getMessage());
+            }
+        }
+
+        primaryFallbacks.increment();
+        return opener.open(primary);
+    }
+
+    private Long probe(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            if (!result.next()) return 0L;
+
+            long lag = result.getLong(lagColumn(result));
+            return result.wasNull() ? null : lag;
+        } catch (SQLException ex) {
+            log.debug("Replica lag probe failed: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private static int lagColumn(ResultSet result) {
+        try {
+            return result.findColumn(LAG_COLUMN);
+        } catch (SQLException ex) {
+            return 1;
+        }
+    }
+
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagSeconds;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
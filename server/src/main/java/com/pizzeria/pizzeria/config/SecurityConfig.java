@@ -1,9 +1,12 @@
 package com.pizzeria.pizzeria.config;
 
 import com.pizzeria.pizzeria.security.AuthTokenFilter;
+import com.pizzeria.pizzeria.security.BoundedPasswordEncoder;
 import com.pizzeria.pizzeria.security.JwtUtils;
-import com.pizzeria.pizzeria.security.UserDetailsServiceImpl;
+import com.pizzeria.pizzeria.security.PrincipalCache;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,7 +18,6 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -29,12 +31,12 @@ import java.util.List;
 @EnableMethodSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
-    private final UserDetailsServiceImpl userDetailsService;
+    private final PrincipalCache principalCache;
     private final JwtUtils jwtUtils;
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(jwtUtils, principalCache);
     }
 
     @Bean
@@ -43,8 +45,11 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth ->
-                        auth.requestMatchers("/api/auth/**").permitAll()
+                        auth.dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                                .requestMatchers("/api/auth/**").permitAll()
                                 .requestMatchers(HttpMethod.GET, "/api/pizzas/**").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/actuator/health/**", "/actuator/prometheus").permitAll()
+                                .requestMatchers("/actuator/**").hasRole("ADMIN")
                                 .anyRequest().authenticated());
 
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
@@ -70,7 +75,10 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength,
+                                                  @Value("${app.security.password-hashing.threads:0}") int threads,
+                                                  @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity);
     }
 }
@@ -0,0 +1,55 @@
+package com.pizzeria.pizzeria.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class StatementCountFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = StatementCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summary(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN").record(statements);
+        }
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        return summaries.computeIfAbsent(method + ' ' + uri, key -> DistributionSummary
+                .builder("hibernate.statements.per.request")
+                .description("JDBC statements Hibernate prepared on the request thread while serving one request; "
+                        + "statements run by async or streaming response bodies on other threads are not counted")
+                .tag("method", method)
+                .tag("uri", uri)
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(meterRegistry));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
@@ -0,0 +1,24 @@
+package com.pizzeria.pizzeria.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = CURRENT.get();
+        if (count != null) count[0]++;
+        return sql;
+    }
+
+    static void start() {
+        CURRENT.set(new int[1]);
+    }
+
+    static int stop() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count != null ? count[0] : 0;
+    }
+}
@@ -0,0 +1,254 @@
+package com.pizzeria.pizzeria.config;
+
+import com.pizzeria.pizzeria.service.SalesAnalytics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Configuration
+@Profile("synthetic")
+@RequiredArgsConstructor
+public class SyntheticDataInitializer {
+    private static final String USER_PREFIX = "synthetic_user_";
+    private static final String PIZZA_PREFIX = "Synthetic Pizza ";
+    private static final int[] HOUR_WEIGHTS = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 2, 8, 10, 6, 3, 2, 3, 6, 10, 12, 9, 5, 2};
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final SalesAnalytics salesAnalytics;
+
+    @Value("${app.synthetic.users:1000}")
+    private int users;
+
+    @Value("${app.synthetic.pizzas:40}")
+    private int pizzas;
+
+    @Value("${app.synthetic.orders:1000000}")
+    private int orders;
+
+    @Value("${app.synthetic.max-items-per-order:6}")
+    private int maxItems;
+
+    @Value("${app.synthetic.days:365}")
+    private int days;
+
+    @Value("${app.synthetic.skew:1.1}")
+    private double skew;
+
+    @Value("${app.synthetic.seed:42}")
+    private long seed;
+
+    @Value("${app.synthetic.threads:4}")
+    private int threads;
+
+    @Value("${app.synthetic.chunk-size:20000}")
+    private int chunkSize;
+
+    @Value("${app.synthetic.batch-size:1000}")
+    private int batchSize;
+
+    @Bean
+    @Order(10)
+    CommandLineRunner generateSyntheticData() {
+        return args -> {
+            Long existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE username LIKE ?", Long.class, USER_PREFIX + "%");
+            if (existing != null && existing > 0) {
+                log.info("Synthetic data already present ({} users), skipping generation", existing);
+                return;
+            }
+
+            long started = System.nanoTime();
+            SplittableRandom random = new SplittableRandom(seed);
+            long[] userIds = insertUsers();
+            long[][] menu = insertPizzas(random.split());
+            log.info("Synthetic users and pizzas created: {} users, {} pizzas", userIds.length, menu[0].length);
+
+            long orderStart = reserveIds("orders", orders);
+            long itemStart = reserveIds("order_items", (long) orders * maxItems);
+
+            Zipf pizzaPopularity = new Zipf(menu[0].length, skew);
+            Zipf userActivity = new Zipf(userIds.length, 0.8);
+            LocalDateTime firstDay = LocalDate.now().minusDays(days).atStartOfDay();
+            AtomicLong itemCount = new AtomicLong();
+
+            List<Future<?>> chunks = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                for (int from = 0; from < orders; from += chunkSize) {
+                    int start = from;
+                    int end = Math.min(orders, from + chunkSize);
+                    chunks.add(executor.submit(() -> {
+                        itemCount.addAndGet(insertOrders(start, end, orderStart, itemStart,
+                                userIds, menu, pizzaPopularity, userActivity, firstDay));
+                        return null;
+                    }));
+                }
+                for (Future<?> chunk : chunks) {
+                    chunk.get();
+                }
+            }
+
+            log.info("Synthetic data generated: {} orders, {} order items in {} s",
+                    orders, itemCount.get(), (System.nanoTime() - started) / 1_000_000_000);
+            salesAnalytics.backfill();
+        };
+    }
+
+    private long[] insertUsers() {
+        String password = passwordEncoder.encode("synthetic123");
+        List<Object[]> rows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{USER_PREFIX + i, USER_PREFIX + i + "@example.com", password, "ROLE_USER"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, ?)", rows);
+
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE ? ORDER BY id", Long.class, USER_PREFIX + "%")
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long[][] insertPizzas(SplittableRandom random) {
+        List<Object[]> rows = new ArrayList<>(pizzas);
+        for (int i = 0; i < pizzas; i++) {
+            rows.add(new Object[]{PIZZA_PREFIX + i, "Generated pizza number " + i, 800 + 50L * random.nextInt(30), true});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pizzas (name, description, price_cents, available) VALUES (?, ?, ?, ?)", rows);
+
+        List<long[]> menu = jdbcTemplate.query("SELECT id, price_cents FROM pizzas WHERE name LIKE ? ORDER BY id",
+                (rs, row) -> new long[]{rs.getLong("id"), rs.getLong("price_cents")}, PIZZA_PREFIX + "%");
+        long[][] idsAndPrices = new long[2][menu.size()];
+        for (int i = 0; i < menu.size(); i++) {
+            idsAndPrices[0][i] = menu.get(i)[0];
+            idsAndPrices[1][i] = menu.get(i)[1];
+        }
+        return idsAndPrices;
+    }
+
+    private long reserveIds(String sequence, long count) {
+        return transactionTemplate.execute(status -> {
+            List<Long> current = jdbcTemplate.queryForList(
+                    "SELECT next_val FROM id_generators WHERE sequence_name = ? FOR UPDATE", Long.class, sequence);
+            long start = current.isEmpty() || current.getFirst() == null ? 1 : current.getFirst();
+            long next = start + count + 50;
+
+            if (current.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?)", sequence, next);
+            } else {
+                jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ?", next, sequence);
+            }
+            return start;
+        });
+    }
+
+    private long insertOrders(int from, int to, long orderStart, long itemStart, long[] userIds, long[][] menu,
+                              Zipf pizzaPopularity, Zipf userActivity, LocalDateTime firstDay) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed ^ (from * 0x9E3779B97F4A7C15L));
+        long items = 0;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement orderInsert = connection.prepareStatement("""
+                     INSERT INTO orders (id, user_id, total_amount_cents, status, created_at, reference)
+                     VALUES (?, ?, ?, ?, ?, ?)""");
+             PreparedStatement itemInsert = connection.prepareStatement("""
+                     INSERT INTO order_items (id, order_id, pizza_id, quantity, unit_price_cents)
+                     VALUES (?, ?, ?, ?, ?)""")) {
+            connection.setAutoCommit(false);
+
+            for (int index = from; index < to; index++) {
+                long orderId = orderStart + index;
+                int lines = 1 + Math.min(maxItems - 1, (int) (-Math.log(1 - random.nextDouble()) * 1.5));
+                long total = 0;
+
+                for (int line = 0; line < lines; line++) {
+                    int pizza = pizzaPopularity.sample(random);
+                    int quantity = 1 + (random.nextInt(10) == 0 ? random.nextInt(4) : 0);
+                    itemInsert.setLong(1, itemStart + (long) index * maxItems + line);
+                    itemInsert.setLong(2, orderId);
+                    itemInsert.setLong(3, menu[0][pizza]);
+                    itemInsert.setInt(4, quantity);
+                    itemInsert.setLong(5, menu[1][pizza]);
+                    itemInsert.addBatch();
+                    total += menu[1][pizza] * quantity;
+                }
+                items += lines;
+
+                orderInsert.setLong(1, orderId);
+                orderInsert.setLong(2, userIds[userActivity.sample(random)]);
+                orderInsert.setLong(3, total);
+                orderInsert.setString(4, random.nextInt(25) == 0 ? "CANCELLED" : "DELIVERED");
+                orderInsert.setTimestamp(5, Timestamp.valueOf(createdAt(random, firstDay)));
+                orderInsert.setString(6, new UUID(random.nextLong(), random.nextLong()).toString());
+                orderInsert.addBatch();
+
+                if ((index - from + 1) % batchSize == 0) {
+                    orderInsert.executeBatch();
+                    itemInsert.executeBatch();
+                }
+            }
+            orderInsert.executeBatch();
+            itemInsert.executeBatch();
+            connection.commit();
+        }
+        return items;
+    }
+
+    private LocalDateTime createdAt(SplittableRandom random, LocalDateTime firstDay) {
+        int totalWeight = Arrays.stream(HOUR_WEIGHTS).sum();
+        int roll = random.nextInt(totalWeight);
+        int hour = 0;
+        while (roll >= HOUR_WEIGHTS[hour]) {
+            roll -= HOUR_WEIGHTS[hour++];
+        }
+        return firstDay.plusDays(random.nextInt(days))
+                .plusHours(hour)
+                .plusSeconds(random.nextInt(3600));
+    }
+
+    private static final class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int size, double exponent) {
+            cumulative = new double[size];
+            double sum = 0;
+            for (int rank = 0; rank < size; rank++) {
+                sum += 1 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < size; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.pizzeria.pizzeria.controller;
+
+import com.pizzeria.pizzeria.dto.analytics.AverageTicketResponse;
+import com.pizzeria.pizzeria.dto.analytics.BackfillResponse;
+import com.pizzeria.pizzeria.dto.analytics.DailyRevenueResponse;
+import com.pizzeria.pizzeria.dto.analytics.PizzaSalesResponse;
+import com.pizzeria.pizzeria.service.SalesAnalytics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AnalyticsController {
+    private final SalesAnalytics salesAnalytics;
+
+    @GetMapping("/revenue")
+    public ResponseEntity<List<DailyRevenueResponse>> getDailyRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesAnalytics.getDailyRevenue(from, to));
+    }
+
+    @GetMapping("/top-pizzas")
+    public ResponseEntity<List<PizzaSalesResponse>> getTopPizzas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(salesAnalytics.getTopPizzas(from, to, limit));
+    }
+
+    @GetMapping("/average-ticket")
+    public ResponseEntity<AverageTicketResponse> getAverageTicket(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesAnalytics.getAverageTicket(from, to));
+    }
+
+    @PostMapping("/backfill")
+    public ResponseEntity<BackfillResponse> backfill() {
+        return ResponseEntity.ok(salesAnalytics.backfill());
+    }
+}
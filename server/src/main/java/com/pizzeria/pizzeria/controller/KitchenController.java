@@ -0,0 +1,32 @@
+package com.pizzeria.pizzeria.controller;
+
+import com.pizzeria.pizzeria.dto.order.KitchenOrderResponse;
+import com.pizzeria.pizzeria.dto.order.OrderResponse;
+import com.pizzeria.pizzeria.model.OrderStatus;
+import com.pizzeria.pizzeria.service.KitchenBoard;
+import com.pizzeria.pizzeria.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/kitchen")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class KitchenController {
+    private final KitchenBoard kitchenBoard;
+    private final OrderService orderService;
+
+    @GetMapping("/orders")
+    public ResponseEntity<List<KitchenOrderResponse>> getOpenOrders(@RequestParam(required = false) OrderStatus status) {
+        return ResponseEntity.ok(kitchenBoard.getOpenOrders(status));
+    }
+
+    @PostMapping("/orders/{id}/advance")
+    public ResponseEntity<OrderResponse> advance(@PathVariable Long id) {
+        return ResponseEntity.ok(orderService.advanceStatus(id));
+    }
+}
@@ -1,18 +1,29 @@
 package com.pizzeria.pizzeria.controller;
 
+import com.pizzeria.pizzeria.dto.order.OrderCursor;
+import com.pizzeria.pizzeria.dto.order.OrderPageResponse;
 import com.pizzeria.pizzeria.dto.order.OrderRequest;
 import com.pizzeria.pizzeria.dto.order.OrderResponse;
-import com.pizzeria.pizzeria.model.Order;
+import com.pizzeria.pizzeria.dto.order.OrderTicketResponse;
 import com.pizzeria.pizzeria.security.UserDetailsImpl;
+import com.pizzeria.pizzeria.service.IdempotencyService;
+import com.pizzeria.pizzeria.service.OrderIngestionService;
 import com.pizzeria.pizzeria.service.OrderService;
+import com.pizzeria.pizzeria.service.OrderStatusHub;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -20,12 +31,36 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final ObjectProvider<OrderIngestionService> orderIngestionService;
+    private final OrderStatusHub orderStatusHub;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Order> createOrder(@Valid @RequestBody OrderRequest orderRequest, @AuthenticationPrincipal UserDetailsImpl userDetails) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(orderService.placeOrder(orderRequest, userDetails.getUsername()));
+    public ResponseEntity<?> createOrder(@Valid @RequestBody OrderRequest orderRequest,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                         @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        if (idempotencyKey == null) return placeOrder(orderRequest, userDetails);
+
+        return idempotencyService.execute(userDetails.getUsername(), idempotencyKey, orderRequest,
+                () -> placeOrder(orderRequest, userDetails));
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public SseEmitter streamOrderEvents(@AuthenticationPrincipal UserDetailsImpl userDetails) {
+        return orderStatusHub.subscribe(userDetails.getUsername());
+    }
+
+    @GetMapping("/status/{reference}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<OrderTicketResponse> getOrderStatus(@PathVariable String reference, @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        OrderIngestionService ingestion = orderIngestionService.getIfAvailable();
+        String username = userDetails.getUsername();
+
+        return (ingestion != null ? ingestion.getTicket(reference, username) : orderService.findTicket(reference, username))
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
     }
 
     @GetMapping("/my-orders")
@@ -33,4 +68,34 @@ public class OrderController {
     public ResponseEntity<List<OrderResponse>> getMyOrders(@AuthenticationPrincipal UserDetailsImpl userDetails) {
         return ResponseEntity.ok(orderService.getMyOrders(userDetails.getUsername()));
     }
+
+    @GetMapping(value = "/my-orders", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamMyOrders(@AuthenticationPrincipal UserDetailsImpl userDetails) {
+        String username = userDetails.getUsername();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> orderService.streamMyOrders(username, out));
+    }
+
+    @GetMapping("/my-orders/page")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<OrderPageResponse> getMyOrdersPage(@AuthenticationPrincipal UserDetailsImpl userDetails,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getMyOrdersPage(userDetails.getUsername(), OrderCursor.decode(cursor), size));
+    }
+
+    private ResponseEntity<?> placeOrder(OrderRequest orderRequest, UserDetailsImpl userDetails) {
+        OrderIngestionService ingestion = orderIngestionService.getIfAvailable();
+        if (ingestion != null) {
+            OrderTicketResponse ticket = ingestion.enqueue(orderRequest, userDetails);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/status/" + ticket.reference()))
+                    .body(ticket);
+        }
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(orderService.placeOrder(orderRequest, userDetails.getUsername()));
+    }
 }
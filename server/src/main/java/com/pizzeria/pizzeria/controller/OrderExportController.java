@@ -0,0 +1,54 @@
+package com.pizzeria.pizzeria.controller;
+
+import com.pizzeria.pizzeria.service.OrderExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class OrderExportController {
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final OrderExportService orderExportService;
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+        }
+
+        String filename = "orders" + (from != null ? "-" + from : "") + (to != null ? "-" + to : "") + ".csv";
+        if (!gzip) {
+            return ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                    .body(out -> orderExportService.exportCsv(from, to, out));
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename + ".gz").build().toString())
+                .body(out -> {
+                    GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                    orderExportService.exportCsv(from, to, compressed);
+                    compressed.finish();
+                });
+    }
+}
@@ -1,17 +1,19 @@
 package com.pizzeria.pizzeria.controller;
 
 import com.pizzeria.pizzeria.dto.pizza.PizzaRequest;
-import com.pizzeria.pizzeria.model.Pizza;
+import com.pizzeria.pizzeria.dto.pizza.PizzaResponse;
+import com.pizzeria.pizzeria.service.MenuCache;
 import com.pizzeria.pizzeria.service.PizzaService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/pizzas")
 @RequiredArgsConstructor
@@ -19,19 +21,31 @@ public class PizzaController {
     private final PizzaService pizzaService;
 
     @GetMapping
-    public ResponseEntity<List<Pizza>> getMenu() {
-        return ResponseEntity.ok(pizzaService.getAllAvailable());
+    public ResponseEntity<byte[]> getMenu(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // If-None-Match is answered with 304 by Spring before the body is written
+        MenuCache.Snapshot menu = pizzaService.getMenuSnapshot();
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .eTag(gzip ? menu.gzipEtag() : menu.etag());
+
+        if (!gzip) return response.body(menu.json());
+
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(menu.gzipJson());
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Pizza> create(@Valid @RequestBody PizzaRequest pizzaRequest) {
+    public ResponseEntity<PizzaResponse> create(@Valid @RequestBody PizzaRequest pizzaRequest) {
         return ResponseEntity.status(HttpStatus.CREATED).body(pizzaService.create(pizzaRequest));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Pizza> update(@PathVariable Long id, @Valid @RequestBody PizzaRequest pizzaRequest) {
+    public ResponseEntity<PizzaResponse> update(@PathVariable Long id, @Valid @RequestBody PizzaRequest pizzaRequest) {
         return ResponseEntity.ok(pizzaService.update(id, pizzaRequest));
     }
 
@@ -41,4 +55,16 @@ public class PizzaController {
         pizzaService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
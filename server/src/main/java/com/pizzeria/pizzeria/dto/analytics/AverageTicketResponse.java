@@ -0,0 +1,7 @@
+package com.pizzeria.pizzeria.dto.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record AverageTicketResponse(LocalDate from, LocalDate to, long orders, BigDecimal revenue, BigDecimal averageTicket) {
+}
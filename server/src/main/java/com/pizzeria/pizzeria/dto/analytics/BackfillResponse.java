@@ -0,0 +1,4 @@
+package com.pizzeria.pizzeria.dto.analytics;
+
+public record BackfillResponse(long orders, long elapsedMillis) {
+}
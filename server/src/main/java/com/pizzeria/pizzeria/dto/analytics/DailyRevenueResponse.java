@@ -0,0 +1,7 @@
+package com.pizzeria.pizzeria.dto.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyRevenueResponse(LocalDate date, long orders, BigDecimal revenue) {
+}
@@ -0,0 +1,6 @@
+package com.pizzeria.pizzeria.dto.analytics;
+
+import java.math.BigDecimal;
+
+public record PizzaSalesResponse(Long pizzaId, String pizzaName, long quantity, BigDecimal revenue) {
+}
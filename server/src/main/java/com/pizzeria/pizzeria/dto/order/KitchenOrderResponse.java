@@ -0,0 +1,12 @@
+package com.pizzeria.pizzeria.dto.order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record KitchenOrderResponse(
+        Long id, String customer, String status, LocalDateTime createdAt, List<OrderItemResponse> items) {
+
+    public static KitchenOrderResponse of(String customer, OrderResponse order) {
+        return new KitchenOrderResponse(order.id(), customer, order.status(), order.createdAt(), order.items());
+    }
+}
@@ -0,0 +1,12 @@
+package com.pizzeria.pizzeria.dto.order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record OrderCreatedResponse(
+        Long id, String reference, BigDecimal totalAmount, String status, LocalDateTime createdAt, List<Item> items) {
+
+    public record Item(Long pizzaId, String pizzaName, Integer quantity, BigDecimal unitPrice) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.pizzeria.pizzeria.dto.order;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record OrderCursor(LocalDateTime createdAt, Long id) {
+    private static final char SEPARATOR = '|';
+
+    public static OrderCursor of(OrderResponse order) {
+        return new OrderCursor(order.createdAt(), order.id());
+    }
+
+    public static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
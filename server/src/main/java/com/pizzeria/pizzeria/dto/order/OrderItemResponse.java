@@ -1,6 +1,8 @@
 package com.pizzeria.pizzeria.dto.order;
 
+import java.math.BigDecimal;
+
 public record OrderItemResponse(
-        String pizzaName, String pizzaImage, Double unitPrice, Integer quantity
+        Long pizzaId, String pizzaName, String pizzaImage, BigDecimal unitPrice, Integer quantity
 ) {
 }
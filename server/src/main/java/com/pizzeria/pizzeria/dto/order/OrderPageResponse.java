@@ -0,0 +1,6 @@
+package com.pizzeria.pizzeria.dto.order;
+
+import java.util.List;
+
+public record OrderPageResponse(List<OrderResponse> orders, String nextCursor) {
+}
@@ -1,8 +1,9 @@
 package com.pizzeria.pizzeria.dto.order;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 public record OrderResponse(
-        Long id, Double totalAmount, String status, LocalDateTime createdAt, List<OrderItemResponse> items) {
+        Long id, BigDecimal totalAmount, String status, LocalDateTime createdAt, List<OrderItemResponse> items) {
 }
@@ -0,0 +1,4 @@
+package com.pizzeria.pizzeria.dto.order;
+
+public record OrderTicketResponse(String reference, String status, Long orderId) {
+}
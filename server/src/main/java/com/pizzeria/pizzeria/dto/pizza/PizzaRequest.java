@@ -1,10 +1,13 @@
 package com.pizzeria.pizzeria.dto.pizza;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class PizzaRequest {
     @NotBlank(message = "Pizza name is required")
@@ -15,7 +18,8 @@ public class PizzaRequest {
 
     @NotNull(message = "Price is required")
     @Positive(message = "Price must be greater than zero")
-    private Double price;
+    @Digits(integer = 8, fraction = 2, message = "Price must have at most two decimals")
+    private BigDecimal price;
 
     private String imageUrl;
 }
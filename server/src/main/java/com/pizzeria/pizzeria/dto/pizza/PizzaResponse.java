@@ -0,0 +1,21 @@
+package com.pizzeria.pizzeria.dto.pizza;
+
+import com.pizzeria.pizzeria.model.Money;
+import com.pizzeria.pizzeria.model.Pizza;
+
+import java.math.BigDecimal;
+
+public record PizzaResponse(
+        Long id, String name, String description, BigDecimal price, String imageUrl, boolean available
+) {
+    public static PizzaResponse from(Pizza pizza) {
+        return new PizzaResponse(
+                pizza.getId(),
+                pizza.getName(),
+                pizza.getDescription(),
+                Money.toDecimal(pizza.getPriceCents()),
+                pizza.getImageUrl(),
+                pizza.isAvailable()
+        );
+    }
+}
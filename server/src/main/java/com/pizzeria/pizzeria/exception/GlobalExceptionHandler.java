@@ -1,5 +1,6 @@
 package com.pizzeria.pizzeria.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -16,6 +17,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(PizzaNotAvailableException.class)
+    public ResponseEntity<Map<String, Object>> handlePizzaNotAvailable(PizzaNotAvailableException ex) {
+        return new ResponseEntity<>(Map.of(
+                "message", ex.getMessage(),
+                "pizzaIds", ex.getPizzaIds()
+        ), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<Map<String, String>> handlePasswordHashingRejected(PasswordHashingRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -0,0 +1,9 @@
+package com.pizzeria.pizzeria.exception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+    public static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
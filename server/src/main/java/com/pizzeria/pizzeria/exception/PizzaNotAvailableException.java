@@ -0,0 +1,17 @@
+package com.pizzeria.pizzeria.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class PizzaNotAvailableException extends RuntimeException {
+    public static final long serialVersionUID = 1L;
+
+    private final List<Long> pizzaIds;
+
+    public PizzaNotAvailableException(List<Long> pizzaIds) {
+        super("Pizzas not found or unavailable: " + pizzaIds);
+        this.pizzaIds = List.copyOf(pizzaIds);
+    }
+}
@@ -0,0 +1,17 @@
+package com.pizzeria.pizzeria.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class Money {
+    private Money() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
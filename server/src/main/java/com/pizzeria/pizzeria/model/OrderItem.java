@@ -13,7 +13,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_items_id")
+    @TableGenerator(name = "order_items_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "order_items", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,5 +29,6 @@ public class OrderItem {
 
     private Integer quantity;
 
-    private Double unitPrice;
+    @Column(nullable = false)
+    private long unitPriceCents;
 }
@@ -4,5 +4,17 @@ public enum OrderStatus {
     PENDING,
     PREPARING,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    public boolean isOpen() {
+        return this == PENDING || this == PREPARING;
+    }
+
+    public OrderStatus next() {
+        return switch (this) {
+            case PENDING -> PREPARING;
+            case PREPARING -> DELIVERED;
+            default -> throw new IllegalStateException("Order in status " + this + " cannot advance");
+        };
+    }
 }
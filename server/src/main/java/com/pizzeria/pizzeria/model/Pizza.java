@@ -22,7 +22,7 @@ public class Pizza {
     private String description;
 
     @Column(nullable = false)
-    private Double price;
+    private long priceCents;
 
     private String imageUrl;
 
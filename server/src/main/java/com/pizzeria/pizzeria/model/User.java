@@ -1,5 +1,6 @@
 package com.pizzeria.pizzeria.model;
 
+import com.pizzeria.pizzeria.security.UserEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
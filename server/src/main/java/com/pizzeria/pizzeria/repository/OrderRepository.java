@@ -1,12 +1,84 @@
 package com.pizzeria.pizzeria.repository;
 
 import com.pizzeria.pizzeria.model.Order;
+import com.pizzeria.pizzeria.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserUsernameOrderByCreatedAtDesc(String username);
+    @Query("""
+            select o from Order o
+            left join fetch o.items i
+            left join fetch i.pizza
+            where o.user.username = :username
+            order by o.createdAt desc, o.id desc
+            """)
+    List<Order> findWithItemsByUsername(@Param("username") String username);
+
+    @Query("""
+            select o.id from Order o
+            where o.user.username = :username
+            order by o.createdAt desc, o.id desc
+            """)
+    List<Long> findFirstPageIds(@Param("username") String username, Pageable pageable);
+
+    @Query("""
+            select o.id from Order o
+            where o.user.username = :username
+              and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+            order by o.createdAt desc, o.id desc
+            """)
+    List<Long> findPageIdsAfter(@Param("username") String username,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    @Query("""
+            select o from Order o
+            left join fetch o.items i
+            left join fetch i.pizza
+            where o.id in :ids
+            order by o.createdAt desc, o.id desc
+            """)
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select o from Order o
+            join fetch o.user
+            left join fetch o.items i
+            left join fetch i.pizza
+            where o.status in :statuses
+            """)
+    List<Order> findWithItemsByStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("""
+            select o from Order o
+            join fetch o.user
+            left join fetch o.items i
+            left join fetch i.pizza
+            where o.id = :id
+            """)
+    Optional<Order> findWithItemsById(@Param("id") Long id);
+
+    // Compare-and-set on the status column, so two concurrent advances of the same order cannot both win.
+    // Clears the persistence context, so orders loaded before the call are detached afterwards.
+    @Modifying(clearAutomatically = true)
+    @Query("update Order o set o.status = :next where o.id = :id and o.status = :expected")
+    int updateStatus(@Param("id") Long id, @Param("expected") OrderStatus expected, @Param("next") OrderStatus next);
+
+    @Query("select o.reference from Order o where o.reference in :references")
+    Set<String> findReferencesIn(@Param("references") Collection<String> references);
+
+    Optional<Order> findByReferenceAndUserUsername(String reference, String username);
 }
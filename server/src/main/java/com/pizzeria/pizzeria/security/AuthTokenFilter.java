@@ -1,5 +1,6 @@
 package com.pizzeria.pizzeria.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,24 +16,26 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class AuthTokenFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = jwtUtils.getJwtFromCookies(request);
+            Claims claims = jwt != null ? jwtUtils.parseClaims(jwt) : null;
 
-            if (jwt != null && jwtUtils.validateToken(jwt)) {
-                String username = jwtUtils.getUserNameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (claims != null) {
+                String username = claims.getSubject();
+                UserDetails userDetails = principalCache.getPrincipal(username);
 
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
 
-                System.out.println("Usuario autenticado: " + username);
-                System.out.println("Roles cargados: " + userDetails.getAuthorities());
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Authenticated user " + username + " with roles " + userDetails.getAuthorities());
+                }
             }
         } catch (Exception e) {
             logger.error("Authentication error", e);
@@ -0,0 +1,114 @@
+package com.pizzeria.pizzeria.security;
+
+import com.pizzeria.pizzeria.exception.PasswordHashingRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(task));
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new PasswordHashingRejectedException("Too many concurrent sign-in requests, please retry shortly");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T timed(Callable<T> task) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            hashes.increment();
+            totalHashNanos.add(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public long hashCount() {
+        return hashes.sum();
+    }
+
+    public long rejectionCount() {
+        return rejections.sum();
+    }
+
+    public long totalHashNanos() {
+        return totalHashNanos.sum();
+    }
+
+    public long maxHashNanos() {
+        return maxHashNanos.get();
+    }
+
+    public int queuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+}
@@ -1,6 +1,8 @@
 package com.pizzeria.pizzeria.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -22,9 +24,12 @@ public class JwtUtils {
     private final String jwtCookie = "pizzeria-jwt";
     private final int jwtExpirationMs = 86400000;
 
-    private Key getSigninKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private final Key signingKey;
+    private final JwtParser jwtParser;
+
+    public JwtUtils() {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String getJwtFromCookies(HttpServletRequest httpServletRequest) {
@@ -37,7 +42,7 @@ public class JwtUtils {
                 .setSubject(userPrincipal.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigninKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
 
         return ResponseCookie.from(jwtCookie, jwt)
@@ -49,25 +54,13 @@ public class JwtUtils {
                 .build();
     }
 
-    public String getUserNameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigninKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-
-    public boolean validateToken(String authToken) {
+    public Claims parseClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigninKey()).build().parseClaimsJws(authToken);
-            System.out.println("Token válido");
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (JwtException | IllegalArgumentException e) {
-            System.out.println("Token no válido");
-            log.error("Invalid JWT: {}", e.getMessage());
+            log.debug("Invalid JWT: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 
     public ResponseCookie getCleanJwtCookie() {
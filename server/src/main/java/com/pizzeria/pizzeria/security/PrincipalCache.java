@@ -0,0 +1,101 @@
+package com.pizzeria.pizzeria.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+    private final UserDetailsServiceImpl userDetailsService;
+
+    @Value("${app.security.principal-cache.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserDetailsImpl getPrincipal(String username) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt() - now > 0) {
+            hits.increment();
+            return entry.principal();
+        }
+
+        misses.increment();
+        long loadedAt = generation.get();
+        UserDetailsImpl loaded = (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
+        UserDetailsImpl principal = new UserDetailsImpl(
+                loaded.getId(), loaded.getUsername(), loaded.getEmail(), null, loaded.getAuthorities());
+
+        if (entries.size() >= maxSize) shrink(now);
+        // an eviction that raced with this load may have been for the row we just read
+        if (generation.get() == loadedAt) {
+            entries.put(username, new Entry(principal, now + ttl.toNanos()));
+        }
+        return principal;
+    }
+
+    public void evict(String username) {
+        generation.incrementAndGet();
+        if (entries.remove(username) != null) evictions.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.username());
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        evictions.add(entries.size());
+        entries.clear();
+    }
+
+    private void shrink(long now) {
+        entries.entrySet().removeIf(e -> e.getValue().expiresAt() - now <= 0);
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        while (toRemove-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(UserDetailsImpl principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.pizzeria.pizzeria.security;
+
+public record UserChangedEvent(String username) {
+}
@@ -0,0 +1,20 @@
+package com.pizzeria.pizzeria.security;
+
+import com.pizzeria.pizzeria.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+    }
+}
@@ -0,0 +1,12 @@
+package com.pizzeria.pizzeria.service;
+
+public record IdempotencyRecord(String fingerprint, Integer status, String location, byte[] body) {
+
+    public static IdempotencyRecord inProgress(String fingerprint) {
+        return new IdempotencyRecord(fingerprint, null, null, null);
+    }
+
+    public boolean completed() {
+        return status != null;
+    }
+}
@@ -0,0 +1,207 @@
+package com.pizzeria.pizzeria.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final IdempotencyStore store;
+    private final JsonMapper jsonMapper;
+
+    @Value("${app.orders.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${app.orders.idempotency.wait-timeout:10s}")
+    private Duration waitTimeout;
+
+    // How long a claim survives without being renewed; renewLeases keeps live claims well inside it.
+    @Value("${app.orders.idempotency.lease:15s}")
+    private Duration lease;
+
+    private final ConcurrentHashMap<String, Claim> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+
+    public ResponseEntity<?> execute(String username, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String scopedKey = username + ":" + key;
+        String fingerprint = fingerprint(request);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            Claim local = inFlight.get(scopedKey);
+            if (local != null) {
+                checkFingerprint(local.fingerprint(), fingerprint);
+                awaitInFlight(local.done(), deadline);
+                continue;
+            }
+
+            Optional<IdempotencyRecord> existing = store.find(scopedKey);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                checkFingerprint(record.fingerprint(), fingerprint);
+                if (record.completed()) {
+                    replays.increment();
+                    return replay(record);
+                }
+
+                awaitInFlight(null, deadline);
+                continue;
+            }
+
+            // A claim left behind by a crashed instance stops being renewed and can be taken over once its
+            // lease runs out, instead of answering 409 until the ttl.
+            String owner = UUID.randomUUID().toString();
+            if (store.claim(scopedKey, owner, fingerprint, lease)) {
+                return runClaimed(scopedKey, new Claim(owner, fingerprint, new CompletableFuture<>()), action);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.renew-interval-ms:5000}")
+    public void renewLeases() {
+        inFlight.forEach((scopedKey, claim) -> {
+            try {
+                if (!store.renew(scopedKey, claim.owner(), lease)) {
+                    log.warn("Idempotency claim for {} was lost while its request was still running", scopedKey);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Could not renew the idempotency claim for {}", scopedKey, ex);
+            }
+        });
+    }
+
+    public long replayCount() {
+        return replays.sum();
+    }
+
+    public long waitCount() {
+        return waits.sum();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private ResponseEntity<?> runClaimed(String scopedKey, Claim claim, Supplier<ResponseEntity<?>> action) {
+        inFlight.put(scopedKey, claim);
+        try {
+            ResponseEntity<?> response;
+            try {
+                response = action.get();
+            } catch (RuntimeException ex) {
+                try {
+                    store.release(scopedKey, claim.owner());
+                } catch (RuntimeException releaseFailure) {
+                    ex.addSuppressed(releaseFailure);
+                }
+                throw ex;
+            }
+
+            record(scopedKey, claim, response);
+            return response;
+        } finally {
+            inFlight.remove(scopedKey, claim);
+            claim.done().complete(null);
+        }
+    }
+
+    // The action has already run, so a failure here must not release the key: a retry would run it again.
+    // The claim is left to block duplicates until its lease runs out.
+    private void record(String scopedKey, Claim claim, ResponseEntity<?> response) {
+        try {
+            URI location = response.getHeaders().getLocation();
+            IdempotencyRecord record = new IdempotencyRecord(claim.fingerprint(), response.getStatusCode().value(),
+                    location != null ? location.toString() : null, jsonMapper.writeValueAsBytes(response.getBody()));
+            if (!store.complete(scopedKey, claim.owner(), record, ttl)) {
+                log.warn("Idempotency key {} was claimed by another request before its response was stored", scopedKey);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Could not store the response for idempotency key {}", scopedKey, ex);
+        }
+    }
+
+    private void awaitInFlight(CompletableFuture<Void> local, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is still being processed");
+        }
+
+        waits.increment();
+        try {
+            if (local != null) {
+                local.get(remaining, TimeUnit.NANOSECONDS);
+            } else {
+                Thread.sleep(Math.min(POLL_INTERVAL_MS, TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+            }
+        } catch (TimeoutException | ExecutionException ignored) {
+            // loop back and re-read the store
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting", ex);
+        }
+    }
+
+    private static void checkFingerprint(String stored, String fingerprint) {
+        if (!stored.equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatusCode.valueOf(422),
+                    HEADER + " was already used with a different request");
+        }
+    }
+
+    private static ResponseEntity<byte[]> replay(IdempotencyRecord record) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(record.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotent-Replayed", "true");
+        if (record.location() != null) response.location(URI.create(record.location()));
+
+        return response.body(record.body());
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jsonMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Claim(String owner, String fingerprint, CompletableFuture<Void> done) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.pizzeria.pizzeria.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public interface IdempotencyStore {
+    Optional<IdempotencyRecord> find(String key);
+
+    boolean claim(String key, String owner, String fingerprint, Duration lease);
+
+    boolean renew(String key, String owner, Duration lease);
+
+    boolean complete(String key, String owner, IdempotencyRecord record, Duration ttl);
+
+    void release(String key, String owner);
+}
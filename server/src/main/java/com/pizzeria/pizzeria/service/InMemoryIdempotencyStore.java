@@ -0,0 +1,89 @@
+package com.pizzeria.pizzeria.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(name = "app.orders.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    @Value("${app.orders.idempotency.max-size:10000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.expiresAt() - System.nanoTime() <= 0) return Optional.empty();
+
+        return Optional.of(entry.record());
+    }
+
+    @Override
+    public boolean claim(String key, String owner, String fingerprint, Duration lease) {
+        long now = System.nanoTime();
+        if (entries.size() >= maxSize) shrink(now);
+
+        Entry claimed = new Entry(IdempotencyRecord.inProgress(fingerprint), owner, now + lease.toNanos());
+        Entry current = entries.compute(key, (k, existing) ->
+                existing != null && existing.expiresAt() - now > 0 ? existing : claimed);
+        return current == claimed;
+    }
+
+    @Override
+    public boolean renew(String key, String owner, Duration lease) {
+        long expiresAt = System.nanoTime() + lease.toNanos();
+        boolean[] renewed = new boolean[1];
+        entries.computeIfPresent(key, (k, existing) -> {
+            if (!existing.heldBy(owner)) return existing;
+            renewed[0] = true;
+            return new Entry(existing.record(), owner, expiresAt);
+        });
+        return renewed[0];
+    }
+
+    @Override
+    public boolean complete(String key, String owner, IdempotencyRecord record, Duration ttl) {
+        long now = System.nanoTime();
+        Entry completed = new Entry(record, null, now + ttl.toNanos());
+        return entries.compute(key, (k, existing) ->
+                existing == null || existing.expiresAt() - now <= 0 || existing.heldBy(owner)
+                        ? completed
+                        : existing) == completed;
+    }
+
+    @Override
+    public void release(String key, String owner) {
+        entries.computeIfPresent(key, (k, existing) -> existing.heldBy(owner) ? null : existing);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void shrink(long now) {
+        entries.entrySet().removeIf(e -> e.getValue().expiresAt() - now <= 0);
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        while (toRemove > 0 && it.hasNext()) {
+            if (it.next().getValue().record().completed()) {
+                it.remove();
+                toRemove--;
+            }
+        }
+    }
+
+    private record Entry(IdempotencyRecord record, String owner, long expiresAt) {
+        boolean heldBy(String claimant) {
+            return !record.completed() && claimant.equals(owner);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.pizzeria.pizzeria.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.orders.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key) {
+        return jdbcTemplate.query("""
+                        SELECT fingerprint, status, location, body FROM idempotency_keys
+                        WHERE idempotency_key = ? AND expires_at > ?
+                        """,
+                (rs, row) -> new IdempotencyRecord(rs.getString("fingerprint"),
+                        rs.getObject("status", Integer.class), rs.getString("location"), rs.getBytes("body")),
+                key, LocalDateTime.now()).stream().findFirst();
+    }
+
+    @Override
+    public boolean claim(String key, String owner, String fingerprint, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?", key, now);
+        try {
+            jdbcTemplate.update("""
+                            INSERT INTO idempotency_keys (idempotency_key, fingerprint, owner_token, expires_at)
+                            VALUES (?, ?, ?, ?)
+                            """,
+                    key, fingerprint, owner, now.plus(lease));
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean renew(String key, String owner, Duration lease) {
+        return jdbcTemplate.update("""
+                        UPDATE idempotency_keys SET expires_at = ?
+                        WHERE idempotency_key = ? AND owner_token = ? AND status IS NULL
+                        """,
+                LocalDateTime.now().plus(lease), key, owner) == 1;
+    }
+
+    @Override
+    public boolean complete(String key, String owner, IdempotencyRecord record, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+        int updated = jdbcTemplate.update("""
+                        UPDATE idempotency_keys SET status = ?, location = ?, body = ?, owner_token = NULL, expires_at = ?
+                        WHERE idempotency_key = ? AND owner_token = ? AND status IS NULL
+                        """,
+                record.status(), record.location(), record.body(), expiresAt, key, owner);
+        if (updated == 1) return true;
+
+        // the lease ran out before the result was stored; keep it unless another request has claimed the key since
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?", key, now);
+        try {
+            jdbcTemplate.update("""
+                            INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, location, body, expires_at)
+                            VALUES (?, ?, ?, ?, ?, ?)
+                            """,
+                    key, record.fingerprint(), record.status(), record.location(), record.body(), expiresAt);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String key, String owner) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND owner_token = ? AND status IS NULL",
+                key, owner);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", LocalDateTime.now());
+    }
+}
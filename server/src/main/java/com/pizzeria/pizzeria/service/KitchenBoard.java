@@ -0,0 +1,115 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.order.KitchenOrderResponse;
+import com.pizzeria.pizzeria.model.Order;
+import com.pizzeria.pizzeria.model.OrderStatus;
+import com.pizzeria.pizzeria.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory index of open orders, rebuilt from the database at startup and kept current from this
+ * instance's order events. Single-instance only: with several instances behind a load balancer each board
+ * misses the orders placed or advanced on the others.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KitchenBoard {
+    private static final List<OrderStatus> OPEN_STATUSES = List.of(OrderStatus.PENDING, OrderStatus.PREPARING);
+    private static final long CLOSED_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final OrderRepository orderRepository;
+
+    private final ConcurrentSkipListMap<Key, KitchenOrderResponse> board = new ConcurrentSkipListMap<>();
+    private final Map<Long, Key> keysById = new ConcurrentHashMap<>();
+    private final Set<Long> changedDuringLoad = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> recentlyClosed = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Order> open = orderRepository.findWithItemsByStatusIn(OPEN_STATUSES);
+        for (Order order : open) {
+            if (changedDuringLoad.contains(order.getId())) continue;
+
+            apply(KitchenOrderResponse.of(order.getUser().getUsername(), OrderService.toResponse(order)), true);
+        }
+
+        loaded = true;
+        changedDuringLoad.clear();
+        log.info("Kitchen board loaded with {} open orders", keysById.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (!loaded) changedDuringLoad.add(event.order().id());
+
+        apply(KitchenOrderResponse.of(event.username(), event.order()), false);
+    }
+
+    public List<KitchenOrderResponse> getOpenOrders(OrderStatus status) {
+        if (status == null) return new ArrayList<>(board.values());
+
+        return new ArrayList<>(board.subMap(Key.first(status.ordinal()), Key.first(status.ordinal() + 1)).values());
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    // Events commit in status order but their listeners can run out of order, so an event older than what
+    // the board holds is dropped, and closed orders are remembered briefly so a late event cannot reopen them.
+    private void apply(KitchenOrderResponse order, boolean onlyIfAbsent) {
+        OrderStatus status = OrderStatus.valueOf(order.status());
+        keysById.compute(order.id(), (id, previous) -> {
+            if (previous == null && recentlyClosed.containsKey(id)) return null;
+            if (previous != null) {
+                if (onlyIfAbsent || status.ordinal() < previous.status()) return previous;
+                board.remove(previous);
+            }
+            if (!status.isOpen()) {
+                recentlyClosed.put(id, System.nanoTime());
+                return null;
+            }
+
+            Key key = new Key(status.ordinal(), order.createdAt(), order.id());
+            board.put(key, order);
+            return key;
+        });
+
+        if (!status.isOpen()) {
+            long now = System.nanoTime();
+            recentlyClosed.values().removeIf(closedAt -> now - closedAt > CLOSED_RETENTION_NANOS);
+        }
+    }
+
+    private record Key(int status, LocalDateTime createdAt, long id) implements Comparable<Key> {
+        private static final Comparator<Key> ORDER = Comparator.comparingInt(Key::status)
+                .thenComparing(Key::createdAt)
+                .thenComparingLong(Key::id);
+
+        static Key first(int status) {
+            return new Key(status, LocalDateTime.MIN, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.pizza.PizzaResponse;
+import com.pizzeria.pizzeria.model.Pizza;
+import com.pizzeria.pizzeria.repository.PizzaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuCache {
+    private final PizzaRepository pizzaRepository;
+    private final JsonMapper jsonMapper;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder totalRebuildNanos = new LongAdder();
+    private final AtomicLong lastRebuildNanos = new AtomicLong();
+
+    public Snapshot get() {
+        Snapshot current = snapshot.get();
+        long target = version.get();
+        if (current != null && current.version() >= target) {
+            hits.increment();
+            return current;
+        }
+
+        misses.increment();
+        try {
+            return rebuild(target);
+        } catch (RuntimeException e) {
+            if (current == null) throw e;
+            log.warn("Menu rebuild failed, serving the stale menu from version {}: {}", current.version(), e.getMessage());
+            return current;
+        }
+    }
+
+    // The write has already committed, so a failed rebuild must not fail it: the bumped version leaves the
+    // current snapshot stale and the next read retries the rebuild.
+    public void invalidate() {
+        long target = version.incrementAndGet();
+        try {
+            rebuild(target);
+        } catch (RuntimeException e) {
+            log.warn("Menu rebuild for version {} failed, retrying on the next read: {}", target, e.getMessage());
+        }
+    }
+
+    private Snapshot rebuild(long targetVersion) {
+        long start = System.nanoTime();
+        List<Pizza> available = pizzaRepository.findByAvailableTrue();
+        List<PizzaResponse> pizzas = available.stream()
+                .map(PizzaResponse::from)
+                .toList();
+        Map<Long, Long> pricesCents = available.stream()
+                .collect(Collectors.toUnmodifiableMap(Pizza::getId, Pizza::getPriceCents));
+        byte[] json = jsonMapper.writeValueAsBytes(pizzas);
+        String hash = contentHash(json);
+        Snapshot built = new Snapshot(targetVersion, pizzas, pricesCents, json, gzip(json), "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+
+        long elapsed = System.nanoTime() - start;
+        rebuilds.increment();
+        totalRebuildNanos.add(elapsed);
+        lastRebuildNanos.set(elapsed);
+
+        return snapshot.accumulateAndGet(built,
+                (current, next) -> current == null || next.version() >= current.version() ? next : current);
+    }
+
+    private static String contentHash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long rebuildCount() {
+        return rebuilds.sum();
+    }
+
+    public long totalRebuildNanos() {
+        return totalRebuildNanos.sum();
+    }
+
+    public long lastRebuildNanos() {
+        return lastRebuildNanos.get();
+    }
+
+    public record Snapshot(long version, List<PizzaResponse> pizzas, Map<Long, Long> pricesCents,
+                           byte[] json, byte[] gzipJson, String etag, String gzipEtag) {
+        public Snapshot {
+            pizzas = List.copyOf(pizzas);
+            pricesCents = Map.copyOf(pricesCents);
+            json = json.clone();
+            gzipJson = gzipJson.clone();
+        }
+
+        @Override
+        public byte[] json() {
+            return json.clone();
+        }
+
+        @Override
+        public byte[] gzipJson() {
+            return gzipJson.clone();
+        }
+    }
+}
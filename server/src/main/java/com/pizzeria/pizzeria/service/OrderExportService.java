@@ -0,0 +1,103 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.model.Money;
+import com.pizzeria.pizzeria.model.OrderStatus;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+    private static final String HEADER =
+            "order_id,reference,created_at,customer,status,order_total,pizza,quantity,unit_price,line_total\n";
+
+    private final EntityManager entityManager;
+
+    @Value("${app.orders.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Transactional(readOnly = true)
+    public void exportCsv(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        StringBuilder hql = new StringBuilder("""
+                select o.id, o.reference, o.createdAt, u.username, o.status, o.totalAmountCents,
+                       p.name, i.quantity, i.unitPriceCents
+                from OrderItem i
+                join i.order o
+                join o.user u
+                join i.pizza p
+                where 1 = 1
+                """);
+        if (from != null) hql.append(" and o.createdAt >= :from");
+        if (to != null) hql.append(" and o.createdAt < :to");
+        hql.append(" order by o.id, i.id");
+
+        SelectionQuery<Row> query = entityManager.unwrap(Session.class)
+                .createSelectionQuery(hql.toString(), Row.class)
+                .setFetchSize(streamingFetchSize())
+                .setReadOnly(true);
+        if (from != null) query.setParameter("from", from.atStartOfDay());
+        if (to != null) query.setParameter("to", to.plusDays(1).atStartOfDay());
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(HEADER);
+        try (ScrollableResults<Row> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                writeRow(writer, rows.get());
+            }
+        }
+        writer.flush();
+    }
+
+    private int streamingFetchSize() {
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        // Connector/J streams a result set row by row only for Integer.MIN_VALUE; other fetch sizes
+        // would need useCursorFetch, which turns on server-side prepared statements for every query.
+        return dialect instanceof MySQLDialect ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    private static void writeRow(Writer writer, Row row) throws IOException {
+        writer.append(String.valueOf(row.orderId())).append(',')
+                .append(csv(row.reference())).append(',')
+                .append(String.valueOf(row.createdAt())).append(',')
+                .append(csv(row.customer())).append(',')
+                .append(row.status().name()).append(',')
+                .append(Money.toDecimal(row.totalCents()).toPlainString()).append(',')
+                .append(csv(row.pizza())).append(',')
+                .append(String.valueOf(row.quantity())).append(',')
+                .append(Money.toDecimal(row.unitPriceCents()).toPlainString()).append(',')
+                .append(Money.toDecimal(Math.multiplyExact(row.unitPriceCents(), (long) row.quantity())).toPlainString())
+                .append('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    record Row(Long orderId, String reference, LocalDateTime createdAt, String customer, OrderStatus status,
+               long totalCents, String pizza, Integer quantity, long unitPriceCents) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.order.OrderItemRequest;
+import com.pizzeria.pizzeria.dto.order.OrderRequest;
+import com.pizzeria.pizzeria.dto.order.OrderTicketResponse;
+import com.pizzeria.pizzeria.exception.PizzaNotAvailableException;
+import com.pizzeria.pizzeria.security.UserDetailsImpl;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.orders.ingestion.enabled", havingValue = "true")
+public class OrderIngestionService {
+    private static final String QUEUED = "QUEUED";
+    private static final String FAILED = "FAILED";
+
+    private final OrderJournal journal;
+    private final MenuCache menuCache;
+    private final OrderService orderService;
+
+    @Value("${app.orders.ingestion.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.orders.ingestion.failed-ticket-ttl:1h}")
+    private Duration failedTicketTtl;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder deadLettered = new LongAdder();
+
+    @PostConstruct
+    void restorePending() {
+        List<PendingOrder> pending = journal.readBatch(Integer.MAX_VALUE).orders();
+        pending.forEach(order -> track(order.reference(), order.username()));
+        if (!pending.isEmpty()) log.info("Replaying {} queued orders from the journal", pending.size());
+    }
+
+    public OrderTicketResponse enqueue(OrderRequest orderRequest, UserDetailsImpl user) {
+        Map<Long, Long> prices = menuCache.get().pricesCents();
+
+        List<Long> unavailable = orderRequest.getItems().stream()
+                .map(OrderItemRequest::getPizzaId)
+                .filter(id -> !prices.containsKey(id))
+                .distinct()
+                .toList();
+        if (!unavailable.isEmpty()) throw new PizzaNotAvailableException(unavailable);
+
+        long totalCents = 0;
+        List<PendingOrder.Line> lines = new ArrayList<>(orderRequest.getItems().size());
+        for (OrderItemRequest itemRequest : orderRequest.getItems()) {
+            long unitPriceCents = prices.get(itemRequest.getPizzaId());
+            int quantity = itemRequest.getQuantity();
+
+            lines.add(new PendingOrder.Line(itemRequest.getPizzaId(), quantity, unitPriceCents));
+            totalCents = Math.addExact(totalCents, Math.multiplyExact(unitPriceCents, quantity));
+        }
+
+        PendingOrder order = new PendingOrder(UUID.randomUUID().toString(), user.getId(), user.getUsername(),
+                LocalDateTime.now(), totalCents, lines);
+
+        track(order.reference(), user.getUsername());
+        try {
+            journal.append(order);
+        } catch (RuntimeException e) {
+            finish(order.reference());
+            throw e;
+        }
+
+        return new OrderTicketResponse(order.reference(), QUEUED, null);
+    }
+
+    public Optional<OrderTicketResponse> getTicket(String reference, String username) {
+        Ticket ticket = tickets.get(reference);
+        if (ticket == null) return orderService.findTicket(reference, username);
+        if (!ticket.username().equals(username)) return Optional.empty();
+
+        return Optional.of(new OrderTicketResponse(reference, ticket.status(), null));
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.ingestion.drain-interval-ms:200}")
+    public void drain() {
+        Instant cutoff = Instant.now().minus(failedTicketTtl);
+        tickets.values().removeIf(ticket -> ticket.failedAt() != null && ticket.failedAt().isBefore(cutoff));
+
+        OrderJournal.Batch batch = journal.readBatch(batchSize);
+        while (!batch.isEmpty()) {
+            if (!batch.orders().isEmpty() && !persist(batch.orders())) return;
+
+            batch.malformed().forEach(journal::deadLetter);
+            deadLettered.add(batch.malformed().size());
+            journal.commit(batch.endOffset());
+            batch = journal.readBatch(batchSize);
+        }
+    }
+
+    public int queuedCount() {
+        return queued.get();
+    }
+
+    public long deadLetterCount() {
+        return deadLettered.sum();
+    }
+
+    private boolean persist(List<PendingOrder> orders) {
+        try {
+            orderService.persistQueued(orders);
+            orders.forEach(order -> finish(order.reference()));
+            return true;
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                log.warn("Order ingestion paused, database unavailable: {}", e.getMessage());
+                return false;
+            }
+            log.warn("Queued batch of {} orders failed, retrying one by one", orders.size(), e);
+        }
+
+        for (PendingOrder order : orders) {
+            try {
+                orderService.persistQueued(List.of(order));
+                finish(order.reference());
+            } catch (RuntimeException e) {
+                if (isTransient(e)) return false;
+
+                log.error("Queued order {} could not be stored, moved to the dead-letter file", order.reference(), e);
+                journal.deadLetter(order);
+                deadLettered.increment();
+                if (tickets.replace(order.reference(), new Ticket(order.username(), FAILED, Instant.now())) != null) {
+                    queued.decrementAndGet();
+                }
+            }
+        }
+        return true;
+    }
+
+    private void track(String reference, String username) {
+        if (tickets.put(reference, new Ticket(username, QUEUED, null)) == null) queued.incrementAndGet();
+    }
+
+    private void finish(String reference) {
+        if (tickets.remove(reference) != null) queued.decrementAndGet();
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private record Ticket(String username, String status, Instant failedAt) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.pizzeria.pizzeria.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.orders.ingestion.enabled", havingValue = "true")
+public class OrderJournal {
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final Path logFile;
+    private final Path offsetFile;
+    private final Path deadLetterFile;
+    private final FileChannel appendChannel;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile long committedOffset;
+
+    public OrderJournal(JsonMapper jsonMapper,
+                        @Value("${app.orders.ingestion.journal-dir:data/order-journal}") Path directory) throws IOException {
+        this.writer = jsonMapper.writerFor(PendingOrder.class).without(SerializationFeature.INDENT_OUTPUT);
+        this.reader = jsonMapper.readerFor(PendingOrder.class);
+
+        Files.createDirectories(directory);
+        this.logFile = directory.resolve("orders.log");
+        this.offsetFile = directory.resolve("orders.offset");
+        this.deadLetterFile = directory.resolve("orders.dead");
+        this.appendChannel = FileChannel.open(logFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        dropTornTail();
+        long stored = Files.exists(offsetFile) ? Long.parseLong(Files.readString(offsetFile).trim()) : 0;
+        this.committedOffset = Math.min(stored, appendChannel.size());
+    }
+
+    public void append(PendingOrder order) {
+        byte[] json = writer.writeValueAsBytes(order);
+        ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+
+        lock.lock();
+        try {
+            long position = appendChannel.size();
+            while (line.hasRemaining()) {
+                position += appendChannel.write(line, position);
+            }
+            appendChannel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append order to the journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void deadLetter(PendingOrder order) {
+        writeDeadLetter(writer.writeValueAsBytes(order));
+    }
+
+    public void deadLetter(String rawLine) {
+        writeDeadLetter(rawLine.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeDeadLetter(byte[] json) {
+        byte[] line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').array();
+
+        lock.lock();
+        try {
+            Files.write(deadLetterFile, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+                    StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append order to the dead-letter file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Lines that no longer parse are skipped and handed back as raw text, so a single corrupt entry
+    // cannot stall the journal; the caller dead-letters them when it commits past them.
+    public Batch readBatch(int maxOrders) {
+        List<PendingOrder> orders = new ArrayList<>();
+        List<String> malformed = new ArrayList<>();
+        long position = committedOffset;
+        long endOffset = position;
+
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            channel.position(position);
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+            int next;
+            while (orders.size() < maxOrders && (next = in.read()) != -1) {
+                position++;
+                if (next != '\n') {
+                    line.write(next);
+                    continue;
+                }
+                String text = line.toString(StandardCharsets.UTF_8);
+                line.reset();
+                endOffset = position;
+                try {
+                    orders.add(reader.readValue(text));
+                } catch (JacksonException e) {
+                    log.error("Skipping unreadable journal entry ending at offset {}: {}", position, e.getOriginalMessage());
+                    malformed.add(text);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the order journal", e);
+        }
+
+        return new Batch(orders, malformed, endOffset);
+    }
+
+    public void commit(long offset) {
+        lock.lock();
+        try {
+            if (offset == appendChannel.size()) {
+                appendChannel.truncate(0);
+                appendChannel.force(true);
+                offset = 0;
+            }
+
+            Path tmp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+            Files.writeString(tmp, Long.toString(offset), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            Files.move(tmp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committedOffset = offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not commit the order journal offset", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dropTornTail() throws IOException {
+        long size = appendChannel.size();
+        long end = size;
+        ByteBuffer last = ByteBuffer.allocate(1);
+
+        while (end > 0) {
+            last.clear();
+            appendChannel.read(last, end - 1);
+            if (last.get(0) == '\n') break;
+            end--;
+        }
+
+        if (end < size) {
+            log.warn("Dropping {} bytes of an incomplete entry at the end of {}", size - end, logFile);
+            appendChannel.truncate(end);
+            appendChannel.force(true);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        appendChannel.close();
+    }
+
+    public record Batch(List<PendingOrder> orders, List<String> malformed, long endOffset) {
+        public boolean isEmpty() {
+            return orders.isEmpty() && malformed.isEmpty();
+        }
+    }
+}
@@ -1,73 +1,239 @@
 package com.pizzeria.pizzeria.service;
 
+import com.pizzeria.pizzeria.dto.order.OrderCreatedResponse;
+import com.pizzeria.pizzeria.dto.order.OrderCursor;
 import com.pizzeria.pizzeria.dto.order.OrderItemRequest;
 import com.pizzeria.pizzeria.dto.order.OrderItemResponse;
+import com.pizzeria.pizzeria.dto.order.OrderPageResponse;
 import com.pizzeria.pizzeria.dto.order.OrderRequest;
 import com.pizzeria.pizzeria.dto.order.OrderResponse;
+import com.pizzeria.pizzeria.dto.order.OrderTicketResponse;
+import com.pizzeria.pizzeria.exception.PizzaNotAvailableException;
+import com.pizzeria.pizzeria.model.Money;
 import com.pizzeria.pizzeria.model.Order;
 import com.pizzeria.pizzeria.model.OrderItem;
+import com.pizzeria.pizzeria.model.OrderStatus;
 import com.pizzeria.pizzeria.model.Pizza;
 import com.pizzeria.pizzeria.model.User;
 import com.pizzeria.pizzeria.repository.OrderRepository;
 import com.pizzeria.pizzeria.repository.PizzaRepository;
 import com.pizzeria.pizzeria.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int STREAM_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     private final PizzaRepository pizzaRepository;
     private final UserRepository userRepository;
+    private final JsonMapper jsonMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
-    public Order placeOrder(OrderRequest orderRequest, String username) {
+    public OrderCreatedResponse placeOrder(OrderRequest orderRequest, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Order order = new Order();
         order.setUser(user);
 
-        double total = 0;
+        Map<Long, Pizza> pizzas = loadAvailablePizzas(orderRequest.getItems());
+
+        long totalCents = 0;
 
         for (OrderItemRequest itemRequest : orderRequest.getItems()) {
-            Pizza pizza = pizzaRepository.findById(itemRequest.getPizzaId())
-                    .orElseThrow(() -> new RuntimeException("Pizza not found"));
+            Pizza pizza = pizzas.get(itemRequest.getPizzaId());
+            int quantity = itemRequest.getQuantity();
 
             OrderItem item = new OrderItem();
             item.setPizza(pizza);
-            item.setQuantity(itemRequest.getQuantity());
-            item.setUnitPrice(pizza.getPrice());
+            item.setQuantity(quantity);
+            item.setUnitPriceCents(pizza.getPriceCents());
             item.setOrder(order);
 
             order.getItems().add(item);
-            total += pizza.getPrice() * itemRequest.getQuantity();
+            totalCents = Math.addExact(totalCents, Math.multiplyExact(pizza.getPriceCents(), quantity));
+        }
+
+        order.setTotalAmountCents(totalCents);
+        Order saved = orderRepository.save(order);
+
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(username, null, toResponse(saved)));
+        return new OrderCreatedResponse(
+                saved.getId(),
+                saved.getReference(),
+                Money.toDecimal(saved.getTotalAmountCents()),
+                saved.getStatus().name(),
+                saved.getCreatedAt(),
+                saved.getItems().stream().map(item -> new OrderCreatedResponse.Item(
+                        item.getPizza().getId(),
+                        item.getPizza().getName(),
+                        item.getQuantity(),
+                        Money.toDecimal(item.getUnitPriceCents())
+                )).toList()
+        );
+    }
+
+    @Transactional
+    public void persistQueued(List<PendingOrder> pending) {
+        Set<String> stored = orderRepository.findReferencesIn(
+                pending.stream().map(PendingOrder::reference).toList());
+        Map<Long, Pizza> pizzas = pizzaRepository.findAllById(pending.stream()
+                        .flatMap(queued -> queued.items().stream())
+                        .map(PendingOrder.Line::pizzaId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Pizza::getId, Function.identity()));
+
+        List<Order> orders = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        for (PendingOrder queued : pending) {
+            if (stored.contains(queued.reference())) continue;
+
+            Order order = new Order();
+            order.setReference(queued.reference());
+            order.setUser(userRepository.getReferenceById(queued.userId()));
+            order.setCreatedAt(queued.createdAt());
+            order.setTotalAmountCents(queued.totalCents());
+
+            for (PendingOrder.Line line : queued.items()) {
+                order.getItems().add(new OrderItem(null, order,
+                        pizzas.get(line.pizzaId()), line.quantity(), line.unitPriceCents()));
+            }
+            orders.add(order);
+            usernames.add(queued.username());
         }
 
-        order.setTotalAmount(total);
-        return orderRepository.save(order);
+        List<Order> saved = orderRepository.saveAll(orders);
+        for (int i = 0; i < saved.size(); i++) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(usernames.get(i), null, toResponse(saved.get(i))));
+        }
+    }
+
+    @Transactional
+    public OrderResponse advanceStatus(Long orderId) {
+        Order order = orderRepository.findWithItemsById(orderId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found with id: " + orderId));
+
+        OrderStatus previous = order.getStatus();
+        if (!previous.isOpen()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Order " + orderId + " is already " + previous);
+        }
+        OrderStatus next = previous.next();
+        if (orderRepository.updateStatus(orderId, previous, next) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Order " + orderId + " was changed concurrently, reload and retry");
+        }
+        order.setStatus(next);
+
+        OrderResponse response = toResponse(order);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getUser().getUsername(), previous, response));
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderTicketResponse> findTicket(String reference, String username) {
+        return orderRepository.findByReferenceAndUserUsername(reference, username)
+                .map(order -> new OrderTicketResponse(order.getReference(), order.getStatus().name(), order.getId()));
+    }
+
+    private Map<Long, Pizza> loadAvailablePizzas(List<OrderItemRequest> items) {
+        Set<Long> pizzaIds = items.stream()
+                .map(OrderItemRequest::getPizzaId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, Pizza> pizzas = pizzaRepository.findAllById(pizzaIds).stream()
+                .filter(Pizza::isAvailable)
+                .collect(Collectors.toMap(Pizza::getId, Function.identity()));
+
+        List<Long> unavailable = pizzaIds.stream()
+                .filter(id -> !pizzas.containsKey(id))
+                .toList();
+        if (!unavailable.isEmpty()) throw new PizzaNotAvailableException(unavailable);
+
+        return pizzas;
     }
 
     @Transactional(readOnly = true)
     public List<OrderResponse> getMyOrders(String username) {
-        List<Order> orders = orderRepository.findByUserUsernameOrderByCreatedAtDesc(username);
-
-        return orders.stream().map(order -> new OrderResponse(
-                        order.getId(),
-                        order.getTotalAmount(),
-                        order.getStatus().name(),
-                        order.getCreatedAt(),
-                        order.getItems().stream().map(item -> new OrderItemResponse(
-                                item.getPizza().getName(),
-                                item.getPizza().getImageUrl(),
-                                item.getUnitPrice(),
-                                item.getQuantity()
-                        )).toList()
-                ))
+        return orderRepository.findWithItemsByUsername(username).stream()
+                .map(OrderService::toResponse)
                 .toList();
     }
+
+    @Transactional(readOnly = true)
+    public OrderPageResponse getMyOrdersPage(String username, OrderCursor cursor, int size) {
+        return loadPage(username, cursor, Math.clamp(size, 1, MAX_PAGE_SIZE));
+    }
+
+    public void streamMyOrders(String username, OutputStream out) throws IOException {
+        ObjectWriter writer = jsonMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        OrderCursor cursor = null;
+
+        do {
+            OrderPageResponse page = loadPage(username, cursor, STREAM_PAGE_SIZE);
+            for (OrderResponse order : page.orders()) {
+                out.write(writer.writeValueAsBytes(order));
+                out.write('\n');
+            }
+            out.flush();
+
+            cursor = page.nextCursor() != null ? OrderCursor.of(page.orders().getLast()) : null;
+        } while (cursor != null);
+    }
+
+    private OrderPageResponse loadPage(String username, OrderCursor cursor, int size) {
+        Pageable window = PageRequest.ofSize(size + 1);
+        List<Long> ids = cursor == null
+                ? orderRepository.findFirstPageIds(username, window)
+                : orderRepository.findPageIdsAfter(username, cursor.createdAt(), cursor.id(), window);
+
+        boolean hasMore = ids.size() > size;
+        List<Long> pageIds = hasMore ? ids.subList(0, size) : ids;
+        if (pageIds.isEmpty()) return new OrderPageResponse(List.of(), null);
+
+        List<OrderResponse> orders = orderRepository.findWithItemsByIdIn(pageIds).stream()
+                .map(OrderService::toResponse)
+                .toList();
+
+        return new OrderPageResponse(orders, hasMore ? OrderCursor.of(orders.getLast()).encode() : null);
+    }
+
+    static OrderResponse toResponse(Order order) {
+        return new OrderResponse(
+                order.getId(),
+                Money.toDecimal(order.getTotalAmountCents()),
+                order.getStatus().name(),
+                order.getCreatedAt(),
+                order.getItems().stream().map(item -> new OrderItemResponse(
+                        item.getPizza().getId(),
+                        item.getPizza().getName(),
+                        item.getPizza().getImageUrl(),
+                        Money.toDecimal(item.getUnitPriceCents()),
+                        item.getQuantity()
+                )).toList()
+        );
+    }
 }
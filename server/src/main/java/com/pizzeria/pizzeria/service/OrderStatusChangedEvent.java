@@ -0,0 +1,7 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.order.OrderResponse;
+import com.pizzeria.pizzeria.model.OrderStatus;
+
+public record OrderStatusChangedEvent(String username, OrderStatus previousStatus, OrderResponse order) {
+}
@@ -0,0 +1,140 @@
+package com.pizzeria.pizzeria.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class OrderStatusHub {
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    // Virtual threads regardless of spring.threads.virtual.enabled: a send blocks for as long as a slow
+    // client's socket is full, and parking that on a small shared platform pool would stall every other
+    // subscriber and the MVC async work that uses it.
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${app.orders.events.timeout:30m}")
+    private Duration timeout;
+
+    public SseEmitter subscribe(String username) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(username, emitter);
+        subscribers.compute(username, (key, set) -> {
+            Set<Subscriber> current = set != null ? set : ConcurrentHashMap.newKeySet();
+            current.add(subscriber);
+            return current;
+        });
+        connections.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        subscriber.enqueue(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        Set<Subscriber> current = subscribers.get(event.username());
+        if (current == null) return;
+
+        for (Subscriber subscriber : current) {
+            subscriber.enqueue(SseEmitter.event()
+                    .name("order-status")
+                    .id(event.order().id() + ":" + event.order().status())
+                    .data(event.order()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.values().forEach(current -> current.forEach(subscriber ->
+                subscriber.enqueue(SseEmitter.event().comment("ping"))));
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.username, (key, current) -> {
+            if (current.remove(subscriber)) connections.decrementAndGet();
+            return current.isEmpty() ? null : current;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        sender.shutdownNow();
+        subscribers.values().forEach(current -> current.forEach(subscriber -> {
+            try {
+                subscriber.emitter.complete();
+            } catch (IllegalStateException e) {
+                // the container already recycled this response during shutdown
+            }
+        }));
+    }
+
+    // Events for one connection are queued and written by a single drain task at a time, so a client
+    // sees status changes in the order they were published.
+    private final class Subscriber {
+        private final String username;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(String username, SseEmitter emitter) {
+            this.username = username;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            pending.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) return;
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            SseEmitter.SseEventBuilder event;
+            while ((event = pending.poll()) != null) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping order status subscriber of {}: {}", username, e.getMessage());
+                    pending.clear();
+                    remove(this);
+                    return;
+                }
+            }
+            draining.set(false);
+            if (!pending.isEmpty()) scheduleDrain();
+        }
+    }
+}
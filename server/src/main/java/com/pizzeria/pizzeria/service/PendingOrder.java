@@ -0,0 +1,11 @@
+package com.pizzeria.pizzeria.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record PendingOrder(
+        String reference, Long userId, String username, LocalDateTime createdAt, long totalCents, List<Line> items) {
+
+    public record Line(Long pizzaId, int quantity, long unitPriceCents) {
+    }
+}
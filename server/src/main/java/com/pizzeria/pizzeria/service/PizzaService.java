@@ -1,47 +1,53 @@
 package com.pizzeria.pizzeria.service;
 
 import com.pizzeria.pizzeria.dto.pizza.PizzaRequest;
+import com.pizzeria.pizzeria.dto.pizza.PizzaResponse;
+import com.pizzeria.pizzeria.model.Money;
 import com.pizzeria.pizzeria.model.Pizza;
 import com.pizzeria.pizzeria.repository.PizzaRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 @RequiredArgsConstructor
 public class PizzaService {
     private final PizzaRepository pizzaRepository;
+    private final MenuCache menuCache;
 
-    public List<Pizza> getAllAvailable() {
-        return pizzaRepository.findByAvailableTrue();
+    public MenuCache.Snapshot getMenuSnapshot() {
+        return menuCache.get();
     }
 
-    public Pizza create(PizzaRequest pizzaRequest) {
+    public PizzaResponse create(PizzaRequest pizzaRequest) {
         Pizza pizza = new Pizza();
         pizza.setName(pizzaRequest.getName());
         pizza.setDescription(pizzaRequest.getDescription());
-        pizza.setPrice(pizzaRequest.getPrice());
+        pizza.setPriceCents(Money.toCents(pizzaRequest.getPrice()));
         pizza.setImageUrl(pizzaRequest.getImageUrl());
 
-        return pizzaRepository.save(pizza);
+        Pizza saved = pizzaRepository.save(pizza);
+        menuCache.invalidate();
+        return PizzaResponse.from(saved);
     }
 
-    public Pizza update(Long id, PizzaRequest pizzaRequest) {
+    public PizzaResponse update(Long id, PizzaRequest pizzaRequest) {
         Pizza pizza = pizzaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pizza not found with id: " + id));
 
         pizza.setName(pizzaRequest.getName());
         pizza.setDescription(pizzaRequest.getDescription());
-        pizza.setPrice(pizzaRequest.getPrice());
+        pizza.setPriceCents(Money.toCents(pizzaRequest.getPrice()));
         pizza.setImageUrl(pizzaRequest.getImageUrl());
 
-        return pizzaRepository.save(pizza);
+        Pizza saved = pizzaRepository.save(pizza);
+        menuCache.invalidate();
+        return PizzaResponse.from(saved);
     }
 
     public void delete(Long id) {
         if (!pizzaRepository.existsById(id)) throw new RuntimeException("Cannot delete: Pizza not found");
 
         pizzaRepository.deleteById(id);
+        menuCache.invalidate();
     }
 }
@@ -0,0 +1,298 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.analytics.AverageTicketResponse;
+import com.pizzeria.pizzeria.dto.analytics.BackfillResponse;
+import com.pizzeria.pizzeria.dto.analytics.DailyRevenueResponse;
+import com.pizzeria.pizzeria.dto.analytics.PizzaSalesResponse;
+import com.pizzeria.pizzeria.dto.order.OrderItemResponse;
+import com.pizzeria.pizzeria.dto.order.OrderResponse;
+import com.pizzeria.pizzeria.model.Money;
+import com.pizzeria.pizzeria.model.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesAnalytics {
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int SLOTS = 8;
+
+    private static final String DAILY = "sales_daily";
+    private static final String DAILY_PIZZA = "sales_daily_pizza";
+    private static final String DAILY_REBUILD = "sales_daily_rebuild";
+    private static final String DAILY_PIZZA_REBUILD = "sales_daily_pizza_rebuild";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.analytics.backfill.chunk-size:1000}")
+    private int chunkSize;
+
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+    private final AtomicReference<Fence> fence = new AtomicReference<>();
+
+    // Runs inside the transaction that placed or changed the order, so the rollups commit or roll back with it.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        OrderResponse order = event.order();
+        int delta = weight(OrderStatus.valueOf(order.status())) - weight(event.previousStatus());
+        if (delta == 0) return;
+
+        Date day = Date.valueOf(order.createdAt().toLocalDate());
+        int slot = ThreadLocalRandom.current().nextInt(SLOTS);
+        List<Object[]> daily = List.<Object[]>of(new Object[]{day, slot, delta, delta * Money.toCents(order.totalAmount())});
+
+        Map<Long, long[]> pizzas = new TreeMap<>();
+        for (OrderItemResponse item : order.items()) {
+            long[] totals = pizzas.computeIfAbsent(item.pizzaId(), id -> new long[2]);
+            long quantity = (long) delta * item.quantity();
+            totals[0] += quantity;
+            totals[1] += quantity * Money.toCents(item.unitPrice());
+        }
+        List<Object[]> dailyPizza = pizzas.entrySet().stream()
+                .map(pizza -> new Object[]{day, pizza.getKey(), slot, pizza.getValue()[0], pizza.getValue()[1]})
+                .toList();
+
+        addDaily(DAILY, daily);
+        addDailyPizza(DAILY_PIZZA, dailyPizza);
+
+        Fence running = fence.get();
+        if (running != null && running.tracks(order.id(), event.previousStatus() == null)) {
+            addDaily(DAILY_REBUILD, daily);
+            addDailyPizza(DAILY_PIZZA_REBUILD, dailyPizza);
+        }
+    }
+
+    // Repair tool: recomputes the rollups from the order tables into the rebuild tables, reading orders in
+    // short id-ordered chunks, then copies the result over the live rollups in one short transaction.
+    // Orders placed or changed meanwhile are fenced (see Fence) so they are counted exactly once.
+    public BackfillResponse backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A sales backfill is already running");
+        }
+
+        long started = System.nanoTime();
+        try {
+            jdbcTemplate.update("DELETE FROM " + DAILY_PIZZA_REBUILD);
+            jdbcTemplate.update("DELETE FROM " + DAILY_REBUILD);
+
+            // the mark is read after the fence is up, so every order the scan won't reach is seen by the listener;
+            // the generator ceiling also covers ids already handed out to orders that have not committed yet
+            Fence running = new Fence();
+            fence.set(running);
+            running.mark = jdbcTemplate.queryForObject("""
+                    SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM orders),
+                                    COALESCE((SELECT next_val FROM id_generators WHERE sequence_name = 'orders'), 0))
+                    """, Long.class);
+
+            while (running.scannedThrough < running.mark) {
+                transactionTemplate.executeWithoutResult(status -> scanChunk(running));
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM " + DAILY_PIZZA);
+                jdbcTemplate.update("DELETE FROM " + DAILY);
+                jdbcTemplate.update("INSERT INTO " + DAILY + " (sales_date, slot, order_count, revenue_cents) "
+                        + "SELECT sales_date, slot, order_count, revenue_cents FROM " + DAILY_REBUILD);
+                jdbcTemplate.update("INSERT INTO " + DAILY_PIZZA + " (sales_date, pizza_id, slot, quantity, revenue_cents) "
+                        + "SELECT sales_date, pizza_id, slot, quantity, revenue_cents FROM " + DAILY_PIZZA_REBUILD);
+            });
+        } finally {
+            fence.set(null);
+            backfilling.set(false);
+        }
+
+        Long orders = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(order_count), 0) FROM sales_daily", Long.class);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Sales rollups rebuilt from {} orders in {} ms", orders, elapsedMillis);
+        return new BackfillResponse(orders, elapsedMillis);
+    }
+
+    // Locks the chunk's order rows so a status change to one of them either commits before the chunk is
+    // read, or waits until scannedThrough has moved past it and is then added to the rebuild by the listener.
+    private void scanChunk(Fence running) {
+        List<ScannedOrder> orders = jdbcTemplate.query("""
+                        SELECT id, created_at, status, total_amount_cents FROM orders
+                        WHERE id > ? AND id <= ?
+                        ORDER BY id
+                        LIMIT ?
+                        FOR UPDATE
+                        """,
+                (rs, row) -> {
+                    Date created = rs.getDate("created_at");
+                    boolean counted = created != null && !"CANCELLED".equals(rs.getString("status"));
+                    return new ScannedOrder(rs.getLong("id"), counted ? created : null, rs.getLong("total_amount_cents"));
+                },
+                running.scannedThrough, running.mark, chunkSize);
+        if (orders.isEmpty()) {
+            running.scannedThrough = running.mark;
+            return;
+        }
+
+        Map<Long, Date> days = new HashMap<>();
+        Map<Date, long[]> dailyTotals = new TreeMap<>();
+        for (ScannedOrder order : orders) {
+            if (order.day() == null || running.placedDuringScan.contains(order.id())) continue;
+
+            days.put(order.id(), order.day());
+            long[] totals = dailyTotals.computeIfAbsent(order.day(), day -> new long[2]);
+            totals[0]++;
+            totals[1] += order.totalCents();
+        }
+
+        long last = orders.getLast().id();
+        Map<Date, Map<Long, long[]>> pizzaTotals = new TreeMap<>();
+        jdbcTemplate.query("""
+                        SELECT order_id, pizza_id, quantity, unit_price_cents FROM order_items
+                        WHERE order_id > ? AND order_id <= ? AND pizza_id IS NOT NULL
+                        """,
+                rs -> {
+                    Date day = days.get(rs.getLong("order_id"));
+                    if (day == null) return;
+
+                    long[] totals = pizzaTotals.computeIfAbsent(day, d -> new TreeMap<>())
+                            .computeIfAbsent(rs.getLong("pizza_id"), id -> new long[2]);
+                    long quantity = rs.getLong("quantity");
+                    totals[0] += quantity;
+                    totals[1] += quantity * rs.getLong("unit_price_cents");
+                },
+                running.scannedThrough, last);
+
+        addDaily(DAILY_REBUILD, dailyTotals.entrySet().stream()
+                .map(day -> new Object[]{day.getKey(), 0, day.getValue()[0], day.getValue()[1]})
+                .toList());
+        addDailyPizza(DAILY_PIZZA_REBUILD, pizzaTotals.entrySet().stream()
+                .flatMap(day -> day.getValue().entrySet().stream()
+                        .map(pizza -> new Object[]{day.getKey(), pizza.getKey(), 0, pizza.getValue()[0], pizza.getValue()[1]}))
+                .toList());
+
+        running.scannedThrough = orders.size() < chunkSize ? running.mark : last;
+    }
+
+    private void addDaily(String table, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (sales_date, slot, order_count, revenue_cents) VALUES (?, ?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+                        + "revenue_cents = revenue_cents + VALUES(revenue_cents)",
+                rows);
+    }
+
+    private void addDailyPizza(String table, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (sales_date, pizza_id, slot, quantity, revenue_cents) VALUES (?, ?, ?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), "
+                        + "revenue_cents = revenue_cents + VALUES(revenue_cents)",
+                rows);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyRevenueResponse> getDailyRevenue(LocalDate from, LocalDate to) {
+        DateRange range = DateRange.of(from, to);
+        return jdbcTemplate.query("""
+                        SELECT sales_date, SUM(order_count) AS order_count, SUM(revenue_cents) AS revenue_cents
+                        FROM sales_daily
+                        WHERE sales_date BETWEEN ? AND ?
+                        GROUP BY sales_date
+                        ORDER BY sales_date
+                        """,
+                (rs, row) -> new DailyRevenueResponse(rs.getDate("sales_date").toLocalDate(),
+                        rs.getLong("order_count"), Money.toDecimal(rs.getLong("revenue_cents"))),
+                Date.valueOf(range.from()), Date.valueOf(range.to()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<PizzaSalesResponse> getTopPizzas(LocalDate from, LocalDate to, int limit) {
+        DateRange range = DateRange.of(from, to);
+        return jdbcTemplate.query("""
+                        SELECT p.id, p.name, SUM(s.quantity) AS quantity, SUM(s.revenue_cents) AS revenue_cents
+                        FROM sales_daily_pizza s
+                        JOIN pizzas p ON p.id = s.pizza_id
+                        WHERE s.sales_date BETWEEN ? AND ?
+                        GROUP BY p.id, p.name
+                        HAVING SUM(s.quantity) > 0
+                        ORDER BY quantity DESC, p.name
+                        LIMIT ?
+                        """,
+                (rs, row) -> new PizzaSalesResponse(rs.getLong("id"), rs.getString("name"),
+                        rs.getLong("quantity"), Money.toDecimal(rs.getLong("revenue_cents"))),
+                Date.valueOf(range.from()), Date.valueOf(range.to()), Math.clamp(limit, 1, 100));
+    }
+
+    @Transactional(readOnly = true)
+    public AverageTicketResponse getAverageTicket(LocalDate from, LocalDate to) {
+        DateRange range = DateRange.of(from, to);
+        long[] totals = jdbcTemplate.queryForObject("""
+                        SELECT COALESCE(SUM(order_count), 0) AS order_count, COALESCE(SUM(revenue_cents), 0) AS revenue_cents
+                        FROM sales_daily
+                        WHERE sales_date BETWEEN ? AND ?
+                        """,
+                (rs, row) -> new long[]{rs.getLong("order_count"), rs.getLong("revenue_cents")},
+                Date.valueOf(range.from()), Date.valueOf(range.to()));
+
+        long orders = totals[0];
+        BigDecimal revenue = Money.toDecimal(totals[1]);
+        BigDecimal average = orders == 0
+                ? Money.toDecimal(0)
+                : revenue.divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP);
+        return new AverageTicketResponse(range.from(), range.to(), orders, revenue, average);
+    }
+
+    private static int weight(OrderStatus status) {
+        return status == null || status == OrderStatus.CANCELLED ? 0 : 1;
+    }
+
+    private record ScannedOrder(long id, Date day, long totalCents) {
+    }
+
+    // Splits orders between a running backfill and the listener. The scan counts orders up to the mark,
+    // in id order; the listener adds to the rebuild every change the scan will not see: orders it has
+    // already passed, orders beyond the mark, and orders placed in the range it has yet to reach, which
+    // the scan then skips.
+    private static final class Fence {
+        private volatile long mark = Long.MAX_VALUE;
+        private volatile long scannedThrough;
+        private final Set<Long> placedDuringScan = ConcurrentHashMap.newKeySet();
+
+        boolean tracks(long orderId, boolean placed) {
+            if (orderId > mark || orderId <= scannedThrough) return true;
+            if (!placed) return false;
+
+            placedDuringScan.add(orderId);
+            return true;
+        }
+    }
+
+    private record DateRange(LocalDate from, LocalDate to) {
+        static DateRange of(LocalDate from, LocalDate to) {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+            if (start.isAfter(end)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+            }
+            return new DateRange(start, end);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+-- Schema as ddl-auto=update created it from the original entities: DOUBLE money
+-- columns and IDENTITY ids. Existing databases are baselined at this version and skip it;
+-- every later change is a versioned migration.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role ENUM('ROLE_USER', 'ROLE_ADMIN'),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE pizzas (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    price DOUBLE NOT NULL,
+    image_url VARCHAR(255),
+    available BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_pizzas_name UNIQUE (name)
+);
+
+CREATE TABLE orders (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    total_amount DOUBLE,
+    status ENUM('PENDING', 'PREPARING', 'DELIVERED', 'CANCELLED'),
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE order_items (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    order_id BIGINT,
+    pizza_id BIGINT,
+    quantity INT,
+    unit_price DOUBLE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_items_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_items_pizza FOREIGN KEY (pizza_id) REFERENCES pizzas (id)
+);
@@ -0,0 +1,16 @@
+-- Converts the Double money columns to integer cents.
+
+ALTER TABLE pizzas ADD COLUMN price_cents BIGINT;
+UPDATE pizzas SET price_cents = ROUND(COALESCE(price, 0) * 100);
+ALTER TABLE pizzas MODIFY COLUMN price_cents BIGINT NOT NULL;
+ALTER TABLE pizzas DROP COLUMN price;
+
+ALTER TABLE order_items ADD COLUMN unit_price_cents BIGINT;
+UPDATE order_items SET unit_price_cents = ROUND(COALESCE(unit_price, 0) * 100);
+ALTER TABLE order_items MODIFY COLUMN unit_price_cents BIGINT NOT NULL;
+ALTER TABLE order_items DROP COLUMN unit_price;
+
+ALTER TABLE orders ADD COLUMN total_amount_cents BIGINT;
+UPDATE orders SET total_amount_cents = ROUND(COALESCE(total_amount, 0) * 100);
+ALTER TABLE orders MODIFY COLUMN total_amount_cents BIGINT NOT NULL;
+ALTER TABLE orders DROP COLUMN total_amount;
@@ -0,0 +1,27 @@
+-- Orders and order items used to take IDENTITY ids. Move the table generators past
+-- the existing rows, leaving one allocation block (50) of headroom.
+-- Databases that ran with ddl-auto=update already have the table, possibly with rows
+-- that start at 1, so it is created only if missing and existing rows only move forward.
+-- The AUTO_INCREMENT attribute is left in place; Hibernate always supplies the id.
+
+CREATE TABLE IF NOT EXISTS id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+UPDATE id_generators
+SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM orders))
+WHERE sequence_name = 'orders';
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'orders', seed.next_val FROM (SELECT COALESCE(MAX(id), 0) + 51 AS next_val FROM orders) seed
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'orders');
+
+UPDATE id_generators
+SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 51 FROM order_items))
+WHERE sequence_name = 'order_items';
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'order_items', seed.next_val FROM (SELECT COALESCE(MAX(id), 0) + 51 AS next_val FROM order_items) seed
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE sequence_name = 'order_items');
@@ -0,0 +1,7 @@
+-- Public order reference, also the key queued orders are journaled under.
+-- Orders placed before it existed get a random one.
+ALTER TABLE orders ADD COLUMN reference VARCHAR(36);
+
+UPDATE orders SET reference = UUID() WHERE reference IS NULL;
+
+ALTER TABLE orders ADD CONSTRAINT uk_orders_reference UNIQUE (reference);
@@ -0,0 +1,12 @@
+-- Order history and its keyset pages: WHERE user_id = ? ORDER BY created_at DESC, id DESC.
+-- Also serves the user_id foreign key, so MySQL drops its implicit index.
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at, id);
+
+-- Kitchen board load: WHERE status IN ('PENDING', 'PREPARING').
+CREATE INDEX idx_orders_status_created ON orders (status, created_at);
+
+-- Menu: WHERE available = true.
+CREATE INDEX idx_pizzas_available ON pizzas (available);
+
+-- Item fetch joins by order; also serves the order_id foreign key.
+CREATE INDEX idx_order_items_order ON order_items (order_id, pizza_id);
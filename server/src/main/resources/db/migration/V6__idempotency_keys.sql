@@ -0,0 +1,11 @@
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint CHAR(64) NOT NULL,
+    status INT,
+    location VARCHAR(255),
+    body MEDIUMBLOB,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
@@ -0,0 +1,2 @@
+-- Token of the request holding an in-progress claim, so only that request can renew, complete or release it.
+ALTER TABLE idempotency_keys ADD COLUMN owner_token CHAR(36);
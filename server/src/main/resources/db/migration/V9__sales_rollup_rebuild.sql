@@ -0,0 +1,19 @@
+-- Backfill builds fresh rollups here in small chunks and copies them over sales_daily and
+-- sales_daily_pizza at the end, so a rebuild never holds locks on the live rollups for long.
+
+CREATE TABLE sales_daily_rebuild (
+    sales_date DATE NOT NULL,
+    slot INT NOT NULL,
+    order_count BIGINT NOT NULL,
+    revenue_cents BIGINT NOT NULL,
+    PRIMARY KEY (sales_date, slot)
+);
+
+CREATE TABLE sales_daily_pizza_rebuild (
+    sales_date DATE NOT NULL,
+    pizza_id BIGINT NOT NULL,
+    slot INT NOT NULL,
+    quantity BIGINT NOT NULL,
+    revenue_cents BIGINT NOT NULL,
+    PRIMARY KEY (sales_date, pizza_id, slot)
+);
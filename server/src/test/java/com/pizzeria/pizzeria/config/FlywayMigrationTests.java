@@ -0,0 +1,86 @@
+package com.pizzeria.pizzeria.config;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlywayMigrationTests {
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migrations;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void idGeneratorsStartPastOrdersCreatedWithIdentityIds() {
+        migrateTo("1");
+        jdbc.update("INSERT INTO users (username, email, password, role) VALUES ('ana', 'ana@example.com', 'x', 'ROLE_USER')");
+        jdbc.update("INSERT INTO pizzas (name, description, price, available) VALUES ('Margherita', 'Classic', 8.5, true)");
+        for (int i = 0; i < 3; i++) {
+            jdbc.update("INSERT INTO orders (user_id, total_amount, status) VALUES (1, 8.5, 'PENDING')");
+        }
+        jdbc.update("INSERT INTO order_items (order_id, pizza_id, quantity, unit_price) VALUES (3, 1, 1, 8.5)");
+
+        migrateTo("latest");
+
+        assertThat(nextVal("orders")).isEqualTo(54);
+        assertThat(nextVal("order_items")).isEqualTo(52);
+    }
+
+    @Test
+    void idGeneratorsCreatedByDdlAutoOnlyMoveForward() {
+        migrateTo("1");
+        jdbc.execute("CREATE TABLE id_generators (sequence_name VARCHAR(255) NOT NULL, next_val BIGINT, PRIMARY KEY (sequence_name))");
+        jdbc.update("INSERT INTO id_generators VALUES ('orders', 1), ('order_items', 500)");
+        jdbc.update("INSERT INTO users (username, email, password, role) VALUES ('ana', 'ana@example.com', 'x', 'ROLE_USER')");
+        jdbc.update("INSERT INTO orders (user_id, total_amount, status) VALUES (1, 8.5, 'PENDING')");
+
+        migrateTo("latest");
+
+        assertThat(nextVal("orders")).isEqualTo(52);
+        assertThat(nextVal("order_items")).isEqualTo(500);
+    }
+
+    @Test
+    void preFlywayDatabaseUpgradesMoneyToCentsAndGetsOrderReferences() {
+        migrateTo("1");
+        jdbc.update("INSERT INTO users (username, email, password, role) VALUES ('ana', 'ana@example.com', 'x', 'ROLE_USER')");
+        jdbc.update("INSERT INTO pizzas (name, description, price, available) VALUES ('Margherita', 'Classic', 8.99, true)");
+        jdbc.update("INSERT INTO orders (user_id, total_amount, status) VALUES (1, 17.98, 'PENDING')");
+        jdbc.update("INSERT INTO orders (user_id, total_amount, status) VALUES (1, NULL, 'PENDING')");
+        jdbc.update("INSERT INTO order_items (order_id, pizza_id, quantity, unit_price) VALUES (1, 1, 2, 8.99)");
+
+        migrateTo("latest");
+
+        assertThat(jdbc.queryForObject("SELECT price_cents FROM pizzas", Long.class)).isEqualTo(899);
+        assertThat(jdbc.queryForObject("SELECT unit_price_cents FROM order_items", Long.class)).isEqualTo(899);
+        assertThat(jdbc.queryForList("SELECT total_amount_cents FROM orders ORDER BY id", Long.class)).containsExactly(1798L, 0L);
+        assertThat(jdbc.queryForList("SELECT reference FROM orders", String.class))
+                .doesNotContainNull()
+                .allSatisfy(reference -> assertThat(reference).hasSize(36))
+                .doesNotHaveDuplicates();
+    }
+
+    private void migrateTo(String target) {
+        Flyway.configure().dataSource(dataSource).target(target).load().migrate();
+    }
+
+    private long nextVal(String sequence) {
+        return jdbc.queryForObject("SELECT next_val FROM id_generators WHERE sequence_name = ?", Long.class, sequence);
+    }
+}
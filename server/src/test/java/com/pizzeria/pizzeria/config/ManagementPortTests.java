@@ -0,0 +1,41 @@
+package com.pizzeria.pizzeria.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "management.endpoints.web.exposure.include=health,prometheus"
+})
+class ManagementPortTests {
+    @Value("${local.server.port}")
+    private int serverPort;
+
+    @Value("${local.management.port}")
+    private int managementPort;
+
+    @Test
+    void prometheusIsOnlyServedOnTheManagementPort() throws Exception {
+        assertThat(managementPort).isNotEqualTo(serverPort);
+        assertThat(get(serverPort, "/actuator/prometheus").statusCode()).isNotEqualTo(200);
+
+        HttpResponse<String> scrape = get(managementPort, "/actuator/prometheus");
+        assertThat(scrape.statusCode()).isEqualTo(200);
+        assertThat(scrape.body()).contains("jvm_memory_used_bytes");
+    }
+
+    private static HttpResponse<String> get(int port, String path) throws Exception {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.pizzeria.pizzeria.config;
+
+import com.pizzeria.pizzeria.model.Pizza;
+import com.pizzeria.pizzeria.repository.PizzaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The "replica" is a second pool on the same in-memory database, so routing is observed through the
+// replica connection counter rather than through diverging data.
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.urls=${spring.datasource.url}",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.lag-query=SELECT 0"
+})
+class ReadReplicaRoutingTests {
+    private static final String WRITTEN = "Routing Check";
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @AfterEach
+    void tearDown() {
+        pizzaRepository.findAll().stream()
+                .filter(pizza -> WRITTEN.equals(pizza.getName()))
+                .forEach(pizzaRepository::delete);
+    }
+
+    @Test
+    void readOnlyRepositoryCallsGoToTheReplica() {
+        long replicaConnections = replicaDataSource.replicaConnectionCount();
+        long fallbacks = replicaDataSource.primaryFallbackCount();
+
+        assertThat(pizzaRepository.findAll()).isNotEmpty();
+
+        assertThat(replicaDataSource.replicaConnectionCount()).isEqualTo(replicaConnections + 1);
+        assertThat(replicaDataSource.primaryFallbackCount()).isEqualTo(fallbacks);
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        long replicaConnections = replicaDataSource.replicaConnectionCount();
+        long fallbacks = replicaDataSource.primaryFallbackCount();
+
+        pizzaRepository.save(new Pizza(null, WRITTEN, "Written through the primary", 900L, null, true));
+
+        assertThat(replicaDataSource.replicaConnectionCount()).isEqualTo(replicaConnections);
+        assertThat(replicaDataSource.primaryFallbackCount()).isEqualTo(fallbacks);
+    }
+}
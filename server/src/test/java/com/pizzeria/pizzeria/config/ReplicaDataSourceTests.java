@@ -0,0 +1,104 @@
+package com.pizzeria.pizzeria.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaDataSourceTests {
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaDataSource replicas;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writes;
+    private TransactionTemplate reads;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        replicas = new ReplicaDataSource(primary, List.of(replica), "SELECT seconds FROM replica_lag", Duration.ofSeconds(5));
+
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicas);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbc = new JdbcTemplate(routing);
+        writes = new TransactionTemplate(transactionManager);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndWritesToThePrimary() {
+        assertThat(readNode()).isEqualTo("replica");
+        assertThat(writeNode()).isEqualTo("primary");
+        assertThat(node()).isEqualTo("primary");
+        assertThat(replicas.replicaConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimaryUntilItCatchesUp() {
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+        replicas.checkLag();
+
+        assertThat(replicas.healthyReplicaCount()).isZero();
+        assertThat(readNode()).isEqualTo("primary");
+        assertThat(replicas.primaryFallbackCount()).isEqualTo(1);
+
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 1");
+        replicas.checkLag();
+
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void explicitCredentialsAreRoutedTheSameWay() throws Exception {
+        try (var connection = replicas.getConnection("sa", "")) {
+            assertThat(new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject("SELECT name FROM node", String.class)).isEqualTo("replica");
+        }
+    }
+
+    private String readNode() {
+        return reads.execute(status -> node());
+    }
+
+    private String writeNode() {
+        return writes.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "_routing;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        jdbc.execute("CREATE TABLE replica_lag (seconds BIGINT)");
+        jdbc.update("INSERT INTO replica_lag VALUES (0)");
+        return dataSource;
+    }
+}
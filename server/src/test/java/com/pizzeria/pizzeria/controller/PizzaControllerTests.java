@@ -0,0 +1,84 @@
+package com.pizzeria.pizzeria.controller;
+
+import com.pizzeria.pizzeria.service.MenuCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PizzaControllerTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MenuCache menuCache;
+
+    @Test
+    void menuIsServedPlainWithItsEtag() throws Exception {
+        MenuCache.Snapshot menu = menuCache.get();
+
+        mockMvc.perform(get("/api/pizzas"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, menu.etag()))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(menu.json()));
+    }
+
+    @Test
+    void gzipClientsGetTheCompressedVariantUnderItsOwnEtag() throws Exception {
+        MenuCache.Snapshot menu = menuCache.get();
+
+        byte[] body = mockMvc.perform(get("/api/pizzas").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, menu.gzipEtag()))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(menu.gzipEtag()).endsWith("-gzip\"");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(in.readAllBytes()).isEqualTo(menu.json());
+        }
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWithNotModified() throws Exception {
+        MenuCache.Snapshot menu = menuCache.get();
+
+        mockMvc.perform(get("/api/pizzas").header(HttpHeaders.IF_NONE_MATCH, menu.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, menu.etag()))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/api/pizzas")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, menu.gzipEtag()))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void plainEtagDoesNotValidateTheGzipVariant() throws Exception {
+        MenuCache.Snapshot menu = menuCache.get();
+
+        mockMvc.perform(get("/api/pizzas")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, menu.etag()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, menu.gzipEtag()));
+    }
+}
@@ -0,0 +1,157 @@
+package com.pizzeria.pizzeria.security;
+
+import com.pizzeria.pizzeria.model.Role;
+import com.pizzeria.pizzeria.model.User;
+import com.pizzeria.pizzeria.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.main.allow-bean-definition-overriding=true"
+})
+@AutoConfigureMockMvc
+class BoundedPasswordEncoderTests {
+    private static final String USERNAME = "rehash_user";
+    private static final String PASSWORD = "rehash123";
+    private static final GatedPasswordEncoder GATE = new GatedPasswordEncoder();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        GATE.open();
+        userRepository.findByUsername(USERNAME).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void signInIsRejectedWithRetryAfterWhenTheHashingQueueIsFull() throws Exception {
+        GATE.close();
+        long rejections = passwordEncoder.rejectionCount();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> running;
+            Future<String> queued;
+            try {
+                running = callers.submit(() -> passwordEncoder.encode("first"));
+                awaitUntil(() -> passwordEncoder.activeCount() == 1);
+                queued = callers.submit(() -> passwordEncoder.encode("second"));
+                awaitUntil(() -> passwordEncoder.queuedCount() == 1);
+
+                login("carlos_pizzas", "carlos123")
+                        .andExpect(status().isTooManyRequests())
+                        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+                assertThat(passwordEncoder.rejectionCount()).isEqualTo(rejections + 1);
+            } finally {
+                GATE.open();
+            }
+
+            assertThat(running.get()).startsWith("$2a$");
+            assertThat(queued.get()).startsWith("$2a$");
+        }
+    }
+
+    @Test
+    void signInUpgradesAWeakerHashToTheConfiguredStrength() throws Exception {
+        userRepository.save(new User(null, USERNAME, "rehash@pizzeria.com",
+                new BCryptPasswordEncoder(4).encode(PASSWORD), Role.ROLE_USER));
+
+        login(USERNAME, PASSWORD).andExpect(status().isOk());
+
+        String upgraded = userRepository.findByUsername(USERNAME).orElseThrow().getPassword();
+        assertThat(upgraded).startsWith("$2a$10$");
+        assertThat(passwordEncoder.matches(PASSWORD, upgraded)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(upgraded)).isFalse();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not reached in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private ResultActions login(String username, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"));
+    }
+
+    @TestConfiguration
+    static class GatedEncoderConfig {
+        @Bean
+        BoundedPasswordEncoder passwordEncoder() {
+            return new BoundedPasswordEncoder(GATE, 1, 1);
+        }
+    }
+
+    // BCrypt at the production strength, but held at a gate so a test can keep the hashing pool busy.
+    static class GatedPasswordEncoder implements PasswordEncoder {
+        private final PasswordEncoder bcrypt = new BCryptPasswordEncoder(10);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        void close() {
+            gate = new CountDownLatch(1);
+        }
+
+        void open() {
+            gate.countDown();
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            pass();
+            return bcrypt.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            pass();
+            return bcrypt.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return bcrypt.upgradeEncoding(encodedPassword);
+        }
+
+        private void pass() {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.pizzeria.pizzeria.security;
+
+import com.pizzeria.pizzeria.model.Role;
+import com.pizzeria.pizzeria.model.User;
+import com.pizzeria.pizzeria.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class PrincipalCacheTests {
+    private static final String USERNAME = "cached_user";
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User(null, USERNAME, "cached@pizzeria.com", "{noop}unused", Role.ROLE_USER));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByUsername(USERNAME).ifPresent(userRepository::delete);
+        principalCache.evict(USERNAME);
+    }
+
+    @Test
+    void updatingAUserEvictsItsPrincipalOnceTheTransactionCommits() {
+        assertThat(principalCache.getPrincipal(USERNAME).getEmail()).isEqualTo("cached@pizzeria.com");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByUsername(USERNAME).orElseThrow();
+            user.setEmail("renamed@pizzeria.com");
+            userRepository.saveAndFlush(user);
+
+            assertThat(principalCache.getPrincipal(USERNAME).getEmail()).isEqualTo("cached@pizzeria.com");
+        });
+
+        long misses = principalCache.missCount();
+        assertThat(principalCache.getPrincipal(USERNAME).getEmail()).isEqualTo("renamed@pizzeria.com");
+        assertThat(principalCache.missCount()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    void rolledBackUpdateKeepsTheCachedPrincipal() {
+        principalCache.getPrincipal(USERNAME);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByUsername(USERNAME).orElseThrow();
+            user.setEmail("discarded@pizzeria.com");
+            userRepository.saveAndFlush(user);
+            status.setRollbackOnly();
+        });
+
+        long hits = principalCache.hitCount();
+        assertThat(principalCache.getPrincipal(USERNAME).getEmail()).isEqualTo("cached@pizzeria.com");
+        assertThat(principalCache.hitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void deletingAUserEvictsItsPrincipal() {
+        principalCache.getPrincipal(USERNAME);
+
+        userRepository.delete(userRepository.findByUsername(USERNAME).orElseThrow());
+
+        assertThatThrownBy(() -> principalCache.getPrincipal(USERNAME)).isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void loadThatRacesWithAnEvictionIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        PrincipalCache[] cache = new PrincipalCache[1];
+        cache[0] = cache(Duration.ofMinutes(5), 100, username -> {
+            if (loads.incrementAndGet() == 1) cache[0].evict(username);
+        }, loads);
+
+        cache[0].getPrincipal("racer");
+        cache[0].getPrincipal("racer");
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache[0].getPrincipal("racer")).isNotNull();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void entriesExpireAfterTheirTtl() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        PrincipalCache cache = cache(Duration.ofMillis(50), 100, username -> loads.incrementAndGet(), loads);
+
+        cache.getPrincipal("ttl");
+        cache.getPrincipal("ttl");
+        assertThat(loads).hasValue(1);
+
+        Thread.sleep(80);
+        cache.getPrincipal("ttl");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void cacheShrinksOnceItReachesMaxSize() {
+        AtomicInteger loads = new AtomicInteger();
+        PrincipalCache cache = cache(Duration.ofMinutes(5), 20, username -> loads.incrementAndGet(), loads);
+
+        for (int i = 0; i < 50; i++) {
+            cache.getPrincipal("user" + i);
+            assertThat(cache.size()).isLessThanOrEqualTo(20);
+        }
+        assertThat(cache.evictionCount()).isGreaterThanOrEqualTo(30);
+    }
+
+    private static PrincipalCache cache(Duration ttl, int maxSize, Consumer<String> onLoad, AtomicInteger loads) {
+        UserDetailsServiceImpl users = new UserDetailsServiceImpl(null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                onLoad.accept(username);
+                return new UserDetailsImpl((long) loads.get(), username, username + "@pizzeria.com", "{noop}unused",
+                        List.of(new SimpleGrantedAuthority(Role.ROLE_USER.name())));
+            }
+        };
+        PrincipalCache cache = new PrincipalCache(users);
+        ReflectionTestUtils.setField(cache, "ttl", ttl);
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+        return cache;
+    }
+}
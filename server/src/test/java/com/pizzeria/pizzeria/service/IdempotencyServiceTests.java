@@ -0,0 +1,244 @@
+package com.pizzeria.pizzeria.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class IdempotencyServiceTests {
+    private static final String CUSTOMER = "carlos_pizzas";
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    void concurrentDuplicatesRunTheActionOnceAndReplayItsResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        List<ResponseEntity<?>> responses;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ResponseEntity<?>>> futures = executor.invokeAll(List.of(
+                    () -> idempotencyService.execute(CUSTOMER, key, Map.of("pizza", 1), () -> slowCreate(runs)),
+                    () -> idempotencyService.execute(CUSTOMER, key, Map.of("pizza", 1), () -> slowCreate(runs))));
+            responses = List.of(futures.get(0).get(), futures.get(1).get());
+        }
+
+        assertThat(runs).hasValue(1);
+        assertThat(responses).allSatisfy(response -> assertThat(response.getStatusCode().value()).isEqualTo(201));
+        assertThat(responses).anySatisfy(response ->
+                assertThat(response.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true"));
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRejected() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute(CUSTOMER, key, Map.of("pizza", 1), () -> ResponseEntity.status(201).body(Map.of("id", 1)));
+
+        assertThatThrownBy(() -> idempotencyService.execute(CUSTOMER, key, Map.of("pizza", 2),
+                () -> ResponseEntity.status(201).body(Map.of("id", 2))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode().value()).isEqualTo(422));
+    }
+
+    @Test
+    void failedRequestReleasesTheKeyForARetry() {
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> idempotencyService.execute(CUSTOMER, key, Map.of("pizza", 1), () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ResponseEntity<?> retry = idempotencyService.execute(CUSTOMER, key, Map.of("pizza", 1),
+                () -> ResponseEntity.status(201).body(Map.of("id", 3)));
+        assertThat(retry.getBody()).isEqualTo(Map.of("id", 3));
+    }
+
+    @Test
+    void abandonedClaimIsTakenOverOnceItsLeaseRunsOut() throws Exception {
+        String key = CUSTOMER + ":" + UUID.randomUUID();
+        assertThat(store.claim(key, "crashed", "fingerprint", Duration.ofMillis(100))).isTrue();
+        assertThat(store.claim(key, "retry", "fingerprint", Duration.ofSeconds(15))).isFalse();
+
+        Thread.sleep(150);
+
+        assertThat(store.claim(key, "retry", "fingerprint", Duration.ofSeconds(15))).isTrue();
+        assertThat(store.complete(key, "retry", new IdempotencyRecord("fingerprint", 201, null, new byte[0]),
+                Duration.ofHours(24))).isTrue();
+        assertThat(store.find(key)).hasValueSatisfying(record -> assertThat(record.completed()).isTrue());
+    }
+
+    @Test
+    void lateReleaseOrCompleteDoesNotTouchAnotherRequestsClaim() throws Exception {
+        String key = CUSTOMER + ":" + UUID.randomUUID();
+        assertThat(store.claim(key, "slow", "fingerprint", Duration.ofMillis(100))).isTrue();
+        Thread.sleep(150);
+        assertThat(store.claim(key, "retry", "fingerprint", Duration.ofSeconds(15))).isTrue();
+
+        store.release(key, "slow");
+        assertThat(store.renew(key, "slow", Duration.ofSeconds(15))).isFalse();
+        assertThat(store.complete(key, "slow", new IdempotencyRecord("fingerprint", 201, null, new byte[0]),
+                Duration.ofHours(24))).isFalse();
+
+        assertThat(store.find(key)).hasValueSatisfying(record -> assertThat(record.completed()).isFalse());
+        assertThat(store.claim(key, "third", "fingerprint", Duration.ofSeconds(15))).isFalse();
+    }
+
+    @Test
+    void leaseIsRenewedWhileTheActionOutlivesIt() throws Exception {
+        IdempotencyStore memory = memoryStore();
+        IdempotencyService service = service(memory, Duration.ofSeconds(10), Duration.ofMillis(200));
+        String key = UUID.randomUUID().toString();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ResponseEntity<?>> first = executor.submit(() -> service.execute(CUSTOMER, key, Map.of("pizza", 1), () -> {
+                running.countDown();
+                await(finish);
+                return ResponseEntity.status(201).body(Map.of("id", 1));
+            }));
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+            for (int i = 0; i < 6; i++) {
+                Thread.sleep(100);
+                service.renewLeases();
+            }
+            assertThat(memory.claim(CUSTOMER + ":" + key, "other-instance", "fingerprint", Duration.ofSeconds(15))).isFalse();
+
+            finish.countDown();
+            assertThat(first.get().getStatusCode().value()).isEqualTo(201);
+        }
+        assertThat(memory.find(CUSTOMER + ":" + key)).hasValueSatisfying(record -> assertThat(record.completed()).isTrue());
+    }
+
+    @Test
+    void duplicateOnTheSameInstanceWaitsForTheRunningRequestEvenAfterItsLeaseRanOut() throws Exception {
+        IdempotencyService service = service(memoryStore(), Duration.ofSeconds(10), Duration.ofMillis(100));
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ResponseEntity<?>> first = executor.submit(() -> service.execute(CUSTOMER, key, Map.of("pizza", 1), () -> {
+                runs.incrementAndGet();
+                running.countDown();
+                await(finish);
+                return ResponseEntity.status(201).body(Map.of("id", 1));
+            }));
+            assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(200);
+
+            Future<ResponseEntity<?>> duplicate = executor.submit(() -> service.execute(CUSTOMER, key, Map.of("pizza", 1),
+                    () -> ResponseEntity.status(201).body(Map.of("id", runs.incrementAndGet()))));
+            Thread.sleep(100);
+            finish.countDown();
+
+            assertThat(first.get().getStatusCode().value()).isEqualTo(201);
+            assertThat(duplicate.get().getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        }
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void failureToStoreTheResponseKeepsTheKeyClaimedInsteadOfAllowingARerun() {
+        IdempotencyStore memory = memoryStore();
+        IdempotencyStore failingComplete = new IdempotencyStore() {
+            @Override
+            public Optional<IdempotencyRecord> find(String key) {
+                return memory.find(key);
+            }
+
+            @Override
+            public boolean claim(String key, String owner, String fingerprint, Duration lease) {
+                return memory.claim(key, owner, fingerprint, lease);
+            }
+
+            @Override
+            public boolean renew(String key, String owner, Duration lease) {
+                return memory.renew(key, owner, lease);
+            }
+
+            @Override
+            public boolean complete(String key, String owner, IdempotencyRecord record, Duration ttl) {
+                throw new IllegalStateException("store unavailable");
+            }
+
+            @Override
+            public void release(String key, String owner) {
+                memory.release(key, owner);
+            }
+        };
+        IdempotencyService service = service(failingComplete, Duration.ofMillis(200), Duration.ofSeconds(15));
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<?> placed = service.execute(CUSTOMER, key, Map.of("pizza", 1),
+                () -> ResponseEntity.status(201).body(Map.of("id", runs.incrementAndGet())));
+        assertThat(placed.getBody()).isEqualTo(Map.of("id", 1));
+
+        assertThatThrownBy(() -> service.execute(CUSTOMER, key, Map.of("pizza", 1),
+                () -> ResponseEntity.status(201).body(Map.of("id", runs.incrementAndGet()))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode().value()).isEqualTo(409));
+        assertThat(runs).hasValue(1);
+    }
+
+    private IdempotencyService service(IdempotencyStore idempotencyStore, Duration waitTimeout, Duration lease) {
+        IdempotencyService service = new IdempotencyService(idempotencyStore, jsonMapper);
+        ReflectionTestUtils.setField(service, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(service, "waitTimeout", waitTimeout);
+        ReflectionTestUtils.setField(service, "lease", lease);
+        return service;
+    }
+
+    private static IdempotencyStore memoryStore() {
+        InMemoryIdempotencyStore memory = new InMemoryIdempotencyStore();
+        ReflectionTestUtils.setField(memory, "maxSize", 1000);
+        return memory;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ResponseEntity<?> slowCreate(AtomicInteger runs) {
+        int run = runs.incrementAndGet();
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ResponseEntity.status(201).body(Map.of("id", run));
+    }
+}
@@ -0,0 +1,116 @@
+package com.pizzeria.pizzeria.service;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcIdempotencyStoreTests {
+    private static final String KEY = "ana:checkout-1";
+    private static final Duration LEASE = Duration.ofSeconds(15);
+    private static final Duration TTL = Duration.ofHours(24);
+
+    private JdbcTemplate jdbc;
+    private JdbcIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        store = new JdbcIdempotencyStore(jdbc);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void completedClaimIsReplayedAndCannotBeClaimedAgain() {
+        assertThat(store.find(KEY)).isEmpty();
+        assertThat(store.claim(KEY, "a", "fingerprint", LEASE)).isTrue();
+        assertThat(store.find(KEY)).hasValueSatisfying(record -> assertThat(record.completed()).isFalse());
+        assertThat(store.claim(KEY, "b", "fingerprint", LEASE)).isFalse();
+
+        assertThat(store.complete(KEY, "a", record(), TTL)).isTrue();
+
+        assertThat(store.find(KEY)).hasValueSatisfying(record -> {
+            assertThat(record.status()).isEqualTo(201);
+            assertThat(record.location()).isEqualTo("/api/orders/7");
+            assertThat(record.body()).containsExactly('{', '}');
+        });
+        assertThat(store.claim(KEY, "b", "fingerprint", LEASE)).isFalse();
+        assertThat(store.renew(KEY, "a", LEASE)).isFalse();
+    }
+
+    @Test
+    void expiredClaimIsTakenOverAndTheOldOwnerCanNoLongerTouchIt() throws Exception {
+        assertThat(store.claim(KEY, "a", "fingerprint", Duration.ofMillis(50))).isTrue();
+        Thread.sleep(100);
+        assertThat(store.find(KEY)).isEmpty();
+
+        assertThat(store.claim(KEY, "b", "fingerprint", LEASE)).isTrue();
+
+        assertThat(store.renew(KEY, "a", LEASE)).isFalse();
+        assertThat(store.complete(KEY, "a", record(), TTL)).isFalse();
+        store.release(KEY, "a");
+        assertThat(store.find(KEY)).hasValueSatisfying(record -> assertThat(record.completed()).isFalse());
+
+        store.release(KEY, "b");
+        assertThat(store.find(KEY)).isEmpty();
+    }
+
+    @Test
+    void renewalKeepsAClaimAlivePastItsOriginalLease() throws Exception {
+        assertThat(store.claim(KEY, "a", "fingerprint", Duration.ofMillis(100))).isTrue();
+        assertThat(store.renew(KEY, "a", LEASE)).isTrue();
+        Thread.sleep(150);
+
+        assertThat(store.claim(KEY, "b", "fingerprint", LEASE)).isFalse();
+        assertThat(store.complete(KEY, "a", record(), TTL)).isTrue();
+    }
+
+    @Test
+    void resultIsKeptWhenTheLeaseRanOutButNobodyElseClaimedTheKey() throws Exception {
+        assertThat(store.claim(KEY, "a", "fingerprint", Duration.ofMillis(50))).isTrue();
+        Thread.sleep(100);
+        store.purgeExpired();
+
+        assertThat(store.complete(KEY, "a", record(), TTL)).isTrue();
+        assertThat(store.find(KEY)).hasValueSatisfying(record -> assertThat(record.completed()).isTrue());
+    }
+
+    @Test
+    void releaseLeavesACompletedResultInPlace() {
+        assertThat(store.claim(KEY, "a", "fingerprint", LEASE)).isTrue();
+        assertThat(store.complete(KEY, "a", record(), TTL)).isTrue();
+
+        store.release(KEY, "a");
+
+        assertThat(store.find(KEY)).hasValueSatisfying(record -> assertThat(record.completed()).isTrue());
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredRows() throws Exception {
+        assertThat(store.claim("ana:old", "a", "fingerprint", Duration.ofMillis(50))).isTrue();
+        assertThat(store.claim(KEY, "b", "fingerprint", LEASE)).isTrue();
+        Thread.sleep(100);
+
+        store.purgeExpired();
+
+        assertThat(jdbc.queryForList("SELECT idempotency_key FROM idempotency_keys", String.class)).containsExactly(KEY);
+    }
+
+    private static IdempotencyRecord record() {
+        return new IdempotencyRecord("fingerprint", 201, "/api/orders/7", "{}".getBytes());
+    }
+}
@@ -0,0 +1,72 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.order.KitchenOrderResponse;
+import com.pizzeria.pizzeria.dto.order.OrderItemRequest;
+import com.pizzeria.pizzeria.dto.order.OrderRequest;
+import com.pizzeria.pizzeria.dto.order.OrderResponse;
+import com.pizzeria.pizzeria.model.OrderStatus;
+import com.pizzeria.pizzeria.repository.PizzaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class KitchenBoardTests {
+    @Autowired
+    private KitchenBoard kitchenBoard;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Test
+    void boardFollowsOrdersThroughTheirLifecycle() {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setPizzaId(pizzaRepository.findByAvailableTrue().getFirst().getId());
+        item.setQuantity(1);
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(item));
+
+        Long id = orderService.placeOrder(request, "carlos_pizzas").id();
+        assertThat(ids(kitchenBoard.getOpenOrders(OrderStatus.PENDING))).contains(id);
+
+        orderService.advanceStatus(id);
+        assertThat(ids(kitchenBoard.getOpenOrders(OrderStatus.PENDING))).doesNotContain(id);
+        assertThat(ids(kitchenBoard.getOpenOrders(OrderStatus.PREPARING))).contains(id);
+
+        orderService.advanceStatus(id);
+        assertThat(ids(kitchenBoard.getOpenOrders(null))).doesNotContain(id);
+    }
+
+    @Test
+    void lateEventsDoNotMoveAnOrderBackOrReopenIt() {
+        long id = -4242L;
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        kitchenBoard.onStatusChanged(event(id, OrderStatus.PENDING, OrderStatus.PREPARING, createdAt));
+        kitchenBoard.onStatusChanged(event(id, null, OrderStatus.PENDING, createdAt));
+        assertThat(ids(kitchenBoard.getOpenOrders(OrderStatus.PREPARING))).contains(id);
+        assertThat(ids(kitchenBoard.getOpenOrders(OrderStatus.PENDING))).doesNotContain(id);
+
+        kitchenBoard.onStatusChanged(event(id, OrderStatus.PREPARING, OrderStatus.DELIVERED, createdAt));
+        kitchenBoard.onStatusChanged(event(id, OrderStatus.PENDING, OrderStatus.PREPARING, createdAt));
+        assertThat(ids(kitchenBoard.getOpenOrders(null))).doesNotContain(id);
+    }
+
+    private static OrderStatusChangedEvent event(long id, OrderStatus previous, OrderStatus status, LocalDateTime createdAt) {
+        return new OrderStatusChangedEvent("carlos_pizzas", previous,
+                new OrderResponse(id, BigDecimal.TEN, status.name(), createdAt, List.of()));
+    }
+
+    private static List<Long> ids(List<KitchenOrderResponse> orders) {
+        return orders.stream().map(KitchenOrderResponse::id).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.pizza.PizzaRequest;
+import com.pizzeria.pizzeria.dto.pizza.PizzaResponse;
+import com.pizzeria.pizzeria.model.Pizza;
+import com.pizzeria.pizzeria.repository.PizzaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuCacheTests {
+    private final List<Pizza> pizzas = new ArrayList<>();
+    private final AtomicBoolean databaseDown = new AtomicBoolean();
+
+    private MenuCache cache;
+    private PizzaService pizzaService;
+
+    @BeforeEach
+    void setUp() {
+        pizzas.add(new Pizza(1L, "Margherita", "Tomato and mozzarella", 1250L, null, true));
+        pizzas.add(new Pizza(2L, "Marinara", "Tomato and garlic", 900L, null, false));
+
+        PizzaRepository repository = repository();
+        cache = new MenuCache(repository, JsonMapper.builder().build());
+        pizzaService = new PizzaService(repository, cache);
+    }
+
+    @Test
+    void readsAreServedFromOneSnapshotUntilItIsInvalidated() {
+        MenuCache.Snapshot first = cache.get();
+        MenuCache.Snapshot second = cache.get();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.pizzas()).extracting(PizzaResponse::name).containsExactly("Margherita");
+        assertThat(first.pricesCents()).containsOnlyKeys(1L);
+        assertThat(cache.missCount()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.rebuildCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writesSwapInANewerSnapshot() {
+        MenuCache.Snapshot before = cache.get();
+
+        pizzaService.create(request("Diavola", "14.50"));
+        MenuCache.Snapshot after = cache.get();
+
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(after.gzipEtag()).isEqualTo(after.etag().replaceAll("\"$", "-gzip\""));
+        assertThat(after.pizzas()).extracting(PizzaResponse::name).containsExactly("Margherita", "Diavola");
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedRebuildKeepsServingTheLastMenuAndRetriesOnTheNextRead() {
+        MenuCache.Snapshot before = cache.get();
+
+        databaseDown.set(true);
+        PizzaResponse created = pizzaService.create(request("Diavola", "14.50"));
+
+        assertThat(created.name()).isEqualTo("Diavola");
+        assertThat(cache.get()).isSameAs(before);
+
+        databaseDown.set(false);
+        MenuCache.Snapshot recovered = cache.get();
+
+        assertThat(recovered.version()).isGreaterThan(before.version());
+        assertThat(recovered.pizzas()).extracting(PizzaResponse::name).contains("Diavola");
+        assertThat(cache.get()).isSameAs(recovered);
+    }
+
+    @Test
+    void snapshotBodiesCannotBeModifiedByCallers() {
+        MenuCache.Snapshot snapshot = cache.get();
+        byte[] original = snapshot.json();
+
+        snapshot.json()[0] = 'X';
+        snapshot.gzipJson()[0] = 0;
+
+        assertThat(snapshot.json()).isEqualTo(original);
+        assertThat(snapshot.gzipJson()[0]).isEqualTo((byte) 0x1f);
+    }
+
+    private PizzaRepository repository() {
+        return (PizzaRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PizzaRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByAvailableTrue" -> {
+                        if (databaseDown.get()) throw new IllegalStateException("database unavailable");
+                        yield pizzas.stream().filter(Pizza::isAvailable).toList();
+                    }
+                    case "save" -> {
+                        Pizza pizza = (Pizza) args[0];
+                        pizza.setId((long) pizzas.size() + 1);
+                        pizzas.add(pizza);
+                        yield pizza;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static PizzaRequest request(String name, String price) {
+        PizzaRequest request = new PizzaRequest();
+        request.setName(name);
+        request.setDescription(name + " description");
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+}
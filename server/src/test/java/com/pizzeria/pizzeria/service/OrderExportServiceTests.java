@@ -0,0 +1,56 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.order.OrderItemRequest;
+import com.pizzeria.pizzeria.dto.order.OrderRequest;
+import com.pizzeria.pizzeria.model.Pizza;
+import com.pizzeria.pizzeria.repository.PizzaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OrderExportServiceTests {
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Test
+    void exportWritesOneCsvRowPerOrderItemWithinTheDateRange() throws Exception {
+        List<Pizza> menu = pizzaRepository.findByAvailableTrue();
+        OrderRequest request = new OrderRequest();
+        request.setItems(menu.stream().map(pizza -> {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setPizzaId(pizza.getId());
+            item.setQuantity(2);
+            return item;
+        }).toList());
+        Long orderId = orderService.placeOrder(request, "carlos_pizzas").id();
+
+        LocalDate today = LocalDate.now();
+        List<String> lines = export(today, today);
+
+        assertThat(lines.getFirst()).startsWith("order_id,reference,created_at");
+        assertThat(lines).filteredOn(line -> line.startsWith(orderId + ","))
+                .hasSize(menu.size())
+                .allSatisfy(line -> assertThat(line).contains(",carlos_pizzas,PENDING,"));
+        assertThat(export(today.plusDays(1), null)).containsExactly(lines.getFirst());
+    }
+
+    private List<String> export(LocalDate from, LocalDate to) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportCsv(from, to, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,203 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.order.OrderTicketResponse;
+import com.pizzeria.pizzeria.model.Pizza;
+import com.pizzeria.pizzeria.model.User;
+import com.pizzeria.pizzeria.repository.PizzaRepository;
+import com.pizzeria.pizzeria.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OrderIngestionServiceTests {
+    private static final String CUSTOMER = "carlos_pizzas";
+
+    @TempDir
+    private Path directory;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MenuCache menuCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderJournal journal;
+    private User customer;
+    private Pizza pizza;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = new OrderJournal(JsonMapper.builder().build(), directory);
+        customer = userRepository.findByUsername(CUSTOMER).orElseThrow();
+        pizza = pizzaRepository.findByAvailableTrue().getFirst();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    @Test
+    void drainStoresTheQueuedBatchAndCommitsTheJournal() {
+        PendingOrder first = pending();
+        PendingOrder second = pending();
+        journal.append(first);
+        journal.append(second);
+        OrderIngestionService ingestion = ingestion(orderService);
+
+        ingestion.drain();
+
+        assertThat(ingestion.queuedCount()).isZero();
+        assertThat(journal.readBatch(10).isEmpty()).isTrue();
+        assertThat(ingestion.getTicket(first.reference(), CUSTOMER)).get()
+                .extracting(OrderTicketResponse::status).isEqualTo("PENDING");
+        assertThat(stored(first)).isEqualTo(1);
+        assertThat(stored(second)).isEqualTo(1);
+    }
+
+    @Test
+    void ordersStoredBeforeACrashAreNotStoredTwice() {
+        PendingOrder alreadyStored = pending();
+        PendingOrder fresh = pending();
+        orderService.persistQueued(List.of(alreadyStored));
+        journal.append(alreadyStored);
+        journal.append(fresh);
+        OrderIngestionService ingestion = ingestion(orderService);
+
+        ingestion.drain();
+
+        assertThat(stored(alreadyStored)).isEqualTo(1);
+        assertThat(stored(fresh)).isEqualTo(1);
+        assertThat(ingestion.queuedCount()).isZero();
+        assertThat(journal.readBatch(10).isEmpty()).isTrue();
+    }
+
+    @Test
+    void transientFailurePausesWithoutCommittingOrDeadLettering() {
+        PendingOrder order = pending();
+        journal.append(order);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>(
+                new DataAccessResourceFailureException("connection refused"));
+        OrderIngestionService ingestion = ingestion(failing(batch -> {
+            if (failure.get() != null) throw failure.get();
+            orderService.persistQueued(batch);
+        }));
+
+        ingestion.drain();
+
+        assertThat(journal.readBatch(10).orders()).extracting(PendingOrder::reference).containsExactly(order.reference());
+        assertThat(ingestion.queuedCount()).isEqualTo(1);
+        assertThat(ingestion.deadLetterCount()).isZero();
+        assertThat(Files.exists(directory.resolve("orders.dead"))).isFalse();
+
+        failure.set(null);
+        ingestion.drain();
+
+        assertThat(stored(order)).isEqualTo(1);
+        assertThat(ingestion.queuedCount()).isZero();
+        assertThat(journal.readBatch(10).isEmpty()).isTrue();
+    }
+
+    @Test
+    void permanentlyFailingOrderIsDeadLetteredAndTheRestOfTheBatchStored() throws Exception {
+        PendingOrder good = pending();
+        PendingOrder bad = pending();
+        journal.append(good);
+        journal.append(bad);
+        OrderIngestionService ingestion = ingestion(failing(batch -> {
+            if (batch.contains(bad)) throw new DataIntegrityViolationException("pizza no longer exists");
+            orderService.persistQueued(batch);
+        }));
+
+        ingestion.drain();
+
+        assertThat(stored(good)).isEqualTo(1);
+        assertThat(stored(bad)).isZero();
+        assertThat(ingestion.getTicket(bad.reference(), CUSTOMER)).get()
+                .extracting(OrderTicketResponse::status).isEqualTo("FAILED");
+        assertThat(ingestion.deadLetterCount()).isEqualTo(1);
+        assertThat(ingestion.queuedCount()).isZero();
+        assertThat(Files.readAllLines(directory.resolve("orders.dead")))
+                .singleElement().asString().contains(bad.reference());
+        assertThat(journal.readBatch(10).isEmpty()).isTrue();
+    }
+
+    @Test
+    void unreadableEntryIsDeadLetteredOnceAndReplayContinuesPastIt() throws Exception {
+        PendingOrder before = pending();
+        PendingOrder after = pending();
+        journal.append(before);
+        Files.writeString(directory.resolve("orders.log"), "not json\n", StandardOpenOption.APPEND);
+        journal.append(after);
+
+        OrderIngestionService ingestion = ingestion(orderService);
+        assertThat(ingestion.queuedCount()).isEqualTo(2);
+
+        ingestion.drain();
+        ingestion.drain();
+
+        assertThat(stored(before)).isEqualTo(1);
+        assertThat(stored(after)).isEqualTo(1);
+        assertThat(ingestion.queuedCount()).isZero();
+        assertThat(ingestion.deadLetterCount()).isEqualTo(1);
+        assertThat(Files.readAllLines(directory.resolve("orders.dead"))).containsExactly("not json");
+        assertThat(journal.readBatch(10).isEmpty()).isTrue();
+    }
+
+    private OrderIngestionService ingestion(OrderService orders) {
+        OrderIngestionService ingestion = new OrderIngestionService(journal, menuCache, orders);
+        ReflectionTestUtils.setField(ingestion, "batchSize", 10);
+        ReflectionTestUtils.setField(ingestion, "failedTicketTtl", Duration.ofHours(1));
+        ingestion.restorePending();
+        return ingestion;
+    }
+
+    private static OrderService failing(Consumer<List<PendingOrder>> persist) {
+        return new OrderService(null, null, null, null, null) {
+            @Override
+            public void persistQueued(List<PendingOrder> pending) {
+                persist.accept(pending);
+            }
+        };
+    }
+
+    private PendingOrder pending() {
+        return new PendingOrder(UUID.randomUUID().toString(), customer.getId(), CUSTOMER, LocalDateTime.now(),
+                pizza.getPriceCents(), List.of(new PendingOrder.Line(pizza.getId(), 1, pizza.getPriceCents())));
+    }
+
+    private int stored(PendingOrder order) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE reference = ?", Integer.class,
+                order.reference());
+    }
+}
@@ -0,0 +1,65 @@
+package com.pizzeria.pizzeria.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderJournalTests {
+    @TempDir
+    private Path directory;
+
+    @Test
+    void deadLetteredOrdersAreKeptOutsideTheReplayLog() throws Exception {
+        OrderJournal journal = new OrderJournal(JsonMapper.builder().build(), directory);
+        PendingOrder good = order("good");
+        PendingOrder bad = order("bad");
+        journal.append(good);
+        journal.append(bad);
+
+        OrderJournal.Batch batch = journal.readBatch(10);
+        journal.deadLetter(bad);
+        journal.commit(batch.endOffset());
+        journal.close();
+
+        assertThat(batch.orders()).extracting(PendingOrder::reference).containsExactly("good", "bad");
+        OrderJournal reopened = new OrderJournal(JsonMapper.builder().build(), directory);
+        try {
+            assertThat(reopened.readBatch(10).isEmpty()).isTrue();
+        } finally {
+            reopened.close();
+        }
+        assertThat(Files.readAllLines(directory.resolve("orders.dead")))
+                .singleElement().asString().contains("\"reference\":\"bad\"");
+    }
+
+    @Test
+    void unreadableLinesAreReturnedRawInsteadOfStallingTheJournal() throws Exception {
+        OrderJournal journal = new OrderJournal(JsonMapper.builder().build(), directory);
+        try {
+            journal.append(order("before"));
+            Files.writeString(directory.resolve("orders.log"), "{\"reference\":\n", StandardOpenOption.APPEND);
+            journal.append(order("after"));
+
+            OrderJournal.Batch batch = journal.readBatch(10);
+
+            assertThat(batch.orders()).extracting(PendingOrder::reference).containsExactly("before", "after");
+            assertThat(batch.malformed()).containsExactly("{\"reference\":");
+            assertThat(batch.endOffset()).isEqualTo(Files.size(directory.resolve("orders.log")));
+        } finally {
+            journal.close();
+        }
+    }
+
+    private static PendingOrder order(String reference) {
+        return new PendingOrder(reference, 1L, "carlos_pizzas", LocalDateTime.now(), 899,
+                List.of(new PendingOrder.Line(1L, 1, 899)));
+    }
+}
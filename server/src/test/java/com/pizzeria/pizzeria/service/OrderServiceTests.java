@@ -0,0 +1,220 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.order.OrderCreatedResponse;
+import com.pizzeria.pizzeria.dto.order.OrderCursor;
+import com.pizzeria.pizzeria.dto.order.OrderItemRequest;
+import com.pizzeria.pizzeria.dto.order.OrderPageResponse;
+import com.pizzeria.pizzeria.dto.order.OrderRequest;
+import com.pizzeria.pizzeria.dto.order.OrderResponse;
+import com.pizzeria.pizzeria.exception.PizzaNotAvailableException;
+import com.pizzeria.pizzeria.model.Pizza;
+import com.pizzeria.pizzeria.repository.PizzaRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OrderServiceTests {
+    private static final String CUSTOMER = "carlos_pizzas";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void placeOrderPricesAllItemsWithOneBatchedLookup() {
+        List<Pizza> menu = distinctPizzas(12);
+
+        long singleItemStatements = fewestStatements(() -> orderService.placeOrder(orderOf(menu, 1), CUSTOMER));
+        long twelveItemStatements = fewestStatements(() -> orderService.placeOrder(orderOf(menu, 12), CUSTOMER));
+
+        assertThat(twelveItemStatements).isEqualTo(singleItemStatements);
+        assertThat(statistics.getEntityStatistics(Pizza.class.getName()).getLoadCount()).isEqualTo(12);
+    }
+
+    @Test
+    void placeOrderReturnsALeanResponseBuiltFromLoadedData() {
+        List<Pizza> menu = pizzaRepository.findByAvailableTrue();
+
+        statistics.clear();
+        OrderCreatedResponse created = orderService.placeOrder(orderOf(menu, 3), CUSTOMER);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+
+        statistics.clear();
+        byte[] json = jsonMapper.writeValueAsBytes(created);
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(created.items()).hasSize(3)
+                .allSatisfy(item -> assertThat(item.pizzaName()).isNotBlank());
+        assertThat(new String(json)).doesNotContain("user", "password", "hibernateLazyInitializer");
+        assertThat(json.length).isLessThan(512);
+    }
+
+    @Test
+    void placeOrderReportsEveryMissingPizza() {
+        Long existing = pizzaRepository.findByAvailableTrue().getFirst().getId();
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(item(existing, 1), item(-1L, 2), item(-2L, 1), item(-1L, 1)));
+
+        assertThatThrownBy(() -> orderService.placeOrder(request, CUSTOMER))
+                .isInstanceOfSatisfying(PizzaNotAvailableException.class,
+                        ex -> assertThat(ex.getPizzaIds()).containsExactly(-1L, -2L));
+    }
+
+    @Test
+    void getMyOrdersLoadsWholeHistoryWithOneStatement() {
+        List<Pizza> menu = pizzaRepository.findByAvailableTrue();
+        for (int i = 0; i < 5; i++) {
+            orderService.placeOrder(orderOf(menu, 3), CUSTOMER);
+        }
+
+        statistics.clear();
+        List<OrderResponse> orders = orderService.getMyOrders(CUSTOMER);
+
+        assertThat(orders).hasSizeGreaterThanOrEqualTo(5)
+                .allSatisfy(order -> assertThat(order.items()).isNotEmpty());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getMyOrdersPageWalksTheSameHistoryAsTheFullList() {
+        List<Pizza> menu = pizzaRepository.findByAvailableTrue();
+        for (int i = 0; i < 5; i++) {
+            orderService.placeOrder(orderOf(menu, 2), CUSTOMER);
+        }
+
+        List<Long> paged = new ArrayList<>();
+        OrderCursor cursor = null;
+        do {
+            OrderPageResponse page = orderService.getMyOrdersPage(CUSTOMER, cursor, 2);
+            assertThat(page.orders()).hasSizeLessThanOrEqualTo(2);
+            page.orders().forEach(order -> paged.add(order.id()));
+            cursor = OrderCursor.decode(page.nextCursor());
+        } while (cursor != null);
+
+        assertThat(paged).containsExactlyElementsOf(
+                orderService.getMyOrders(CUSTOMER).stream().map(OrderResponse::id).toList());
+    }
+
+    @Test
+    void concurrentAdvancesOfTheSameOrderCannotBothWin() throws Exception {
+        List<Pizza> menu = pizzaRepository.findByAvailableTrue();
+        Long id = orderService.placeOrder(orderOf(menu, 1), CUSTOMER).id();
+        List<OrderStatusChangedEvent> events = new CopyOnWriteArrayList<>();
+        ApplicationListener<?> listener = ApplicationListener.<OrderStatusChangedEvent>forPayload(event -> {
+            if (event.order().id().equals(id)) events.add(event);
+        });
+        applicationContext.addApplicationListener(listener);
+
+        int callers = 8;
+        CyclicBarrier start = new CyclicBarrier(callers);
+        List<Future<HttpStatusCode>> outcomes = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                outcomes.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.advanceStatus(id);
+                        return HttpStatus.OK;
+                    } catch (ResponseStatusException e) {
+                        return e.getStatusCode();
+                    }
+                }));
+            }
+        } finally {
+            applicationContext.removeApplicationListener(listener);
+        }
+
+        List<HttpStatusCode> statuses = new ArrayList<>();
+        for (Future<HttpStatusCode> outcome : outcomes) statuses.add(outcome.get());
+
+        assertThat(statuses).containsOnly(HttpStatus.OK, HttpStatus.CONFLICT);
+        assertThat(events).hasSize((int) statuses.stream().filter(HttpStatus.OK::equals).count());
+        assertThat(events).extracting(OrderStatusChangedEvent::previousStatus).doesNotHaveDuplicates();
+        assertThat(events.size()).isBetween(1, 2);
+    }
+
+    // Fetching a new id block from id_generators adds statements to whichever order crosses a block
+    // boundary. Three runs use fewer than 50 ids per generator, so each generator crosses at most once
+    // and at least one run is clean; the fewest statements is the cost of the order itself.
+    private long fewestStatements(Runnable placement) {
+        long fewest = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            statistics.clear();
+            placement.run();
+            fewest = Math.min(fewest, statistics.getPrepareStatementCount());
+        }
+        return fewest;
+    }
+
+    private List<Pizza> distinctPizzas(int count) {
+        List<Pizza> pizzas = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            String name = "Batch Pizza " + i;
+            long priceCents = 1000L + i;
+            pizzas.add(pizzaRepository.findAll().stream()
+                    .filter(pizza -> name.equals(pizza.getName()))
+                    .findFirst()
+                    .orElseGet(() -> pizzaRepository.save(new Pizza(null, name, "Batched lookup fixture", priceCents, null, true))));
+        }
+        return pizzas;
+    }
+
+    private static OrderRequest orderOf(List<Pizza> menu, int lines) {
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            items.add(item(menu.get(i % menu.size()).getId(), 1 + i % 3));
+        }
+
+        OrderRequest request = new OrderRequest();
+        request.setItems(items);
+        return request;
+    }
+
+    private static OrderItemRequest item(Long pizzaId, int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setPizzaId(pizzaId);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
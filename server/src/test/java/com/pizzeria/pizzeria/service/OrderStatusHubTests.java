@@ -0,0 +1,62 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.order.OrderResponse;
+import com.pizzeria.pizzeria.model.OrderStatus;
+import com.pizzeria.pizzeria.security.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderStatusHubTests {
+    private static final String CUSTOMER = "sse_listener";
+    private static final int EVENTS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderStatusHub orderStatusHub;
+
+    @Test
+    void subscriberReceivesEventsInPublicationOrder() throws Exception {
+        UserDetailsImpl principal = new UserDetailsImpl(-1L, CUSTOMER, "sse@pizzeria.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        MvcResult stream = mockMvc.perform(get("/api/orders/events").with(user(principal)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        for (long id = 1; id <= EVENTS; id++) {
+            orderStatusHub.onStatusChanged(new OrderStatusChangedEvent(CUSTOMER, null,
+                    new OrderResponse(id, BigDecimal.TEN, OrderStatus.PENDING.name(), LocalDateTime.now(), List.of())));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!stream.getResponse().getContentAsString().contains("id:" + EVENTS + ":PENDING")) {
+            assertThat(System.nanoTime()).as("all events delivered in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+
+        List<Long> delivered = stream.getResponse().getContentAsString().lines()
+                .filter(line -> line.startsWith("id:"))
+                .map(line -> Long.parseLong(line.substring(3, line.indexOf(':', 3))))
+                .toList();
+        assertThat(delivered).containsExactlyElementsOf(LongStream.rangeClosed(1, EVENTS).boxed().toList());
+    }
+}
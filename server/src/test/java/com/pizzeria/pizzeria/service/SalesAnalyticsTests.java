@@ -0,0 +1,164 @@
+package com.pizzeria.pizzeria.service;
+
+import com.pizzeria.pizzeria.dto.analytics.AverageTicketResponse;
+import com.pizzeria.pizzeria.dto.order.OrderCreatedResponse;
+import com.pizzeria.pizzeria.dto.order.OrderItemRequest;
+import com.pizzeria.pizzeria.dto.order.OrderItemResponse;
+import com.pizzeria.pizzeria.dto.order.OrderRequest;
+import com.pizzeria.pizzeria.dto.order.OrderResponse;
+import com.pizzeria.pizzeria.model.Money;
+import com.pizzeria.pizzeria.model.OrderStatus;
+import com.pizzeria.pizzeria.model.Pizza;
+import com.pizzeria.pizzeria.repository.PizzaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SalesAnalyticsTests {
+    @Autowired
+    private SalesAnalytics salesAnalytics;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void placedOrdersUpdateRollupsAndBackfillRebuildsTheSameTotals() {
+        LocalDate today = LocalDate.now();
+        Pizza pizza = pizzaRepository.findByAvailableTrue().getFirst();
+        AverageTicketResponse before = salesAnalytics.getAverageTicket(today, today);
+
+        placeOrder(pizza, 3);
+
+        AverageTicketResponse after = salesAnalytics.getAverageTicket(today, today);
+        assertThat(after.orders()).isEqualTo(before.orders() + 1);
+        assertThat(after.revenue()).isEqualByComparingTo(
+                before.revenue().add(Money.toDecimal(3 * pizza.getPriceCents())));
+
+        salesAnalytics.backfill();
+
+        AverageTicketResponse rebuilt = salesAnalytics.getAverageTicket(today, today);
+        assertThat(rebuilt.orders()).isEqualTo(after.orders());
+        assertThat(rebuilt.revenue()).isEqualByComparingTo(after.revenue());
+        assertThat(salesAnalytics.getTopPizzas(today, today, 10))
+                .anySatisfy(sales -> {
+                    assertThat(sales.pizzaId()).isEqualTo(pizza.getId());
+                    assertThat(sales.pizzaName()).isEqualTo(pizza.getName());
+                });
+    }
+
+    @Test
+    void ordersPlacedOrCancelledWhileABackfillRunsAreCountedExactlyOnce() throws Exception {
+        Pizza pizza = pizzaRepository.findByAvailableTrue().getFirst();
+        OrderCreatedResponse scanned = placeOrder(pizza, 1);
+        long blocker = placeOrder(pizza, 2).id();
+        placeOrder(pizza, 3);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReflectionTestUtils.setField(salesAnalytics, "chunkSize", 1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("SELECT id FROM orders WHERE id = ? FOR UPDATE", Long.class, blocker);
+                locked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            try {
+                Future<?> backfill = executor.submit(salesAnalytics::backfill);
+                awaitScannedThrough(scanned.id());
+
+                cancel(scanned);
+                placeOrder(pizza, 4);
+                release.countDown();
+
+                backfill.get(30, TimeUnit.SECONDS);
+                holder.get(30, TimeUnit.SECONDS);
+            } finally {
+                release.countDown();
+            }
+        } finally {
+            ReflectionTestUtils.setField(salesAnalytics, "chunkSize", 1000);
+        }
+
+        assertThat(totals("SELECT COALESCE(SUM(order_count), 0), COALESCE(SUM(revenue_cents), 0) FROM sales_daily"))
+                .containsExactly(totals("""
+                        SELECT COUNT(*), COALESCE(SUM(total_amount_cents), 0) FROM orders
+                        WHERE status <> 'CANCELLED' AND created_at IS NOT NULL
+                        """));
+        assertThat(jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM sales_daily_pizza", Long.class))
+                .isEqualTo(jdbcTemplate.queryForObject("""
+                        SELECT COALESCE(SUM(i.quantity), 0) FROM order_items i JOIN orders o ON o.id = i.order_id
+                        WHERE o.status <> 'CANCELLED' AND o.created_at IS NOT NULL AND i.pizza_id IS NOT NULL
+                        """, Long.class));
+    }
+
+    private OrderCreatedResponse placeOrder(Pizza pizza, int quantity) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setPizzaId(pizza.getId());
+        item.setQuantity(quantity);
+        OrderRequest request = new OrderRequest();
+        request.setItems(List.of(item));
+        return orderService.placeOrder(request, "carlos_pizzas");
+    }
+
+    // there is no cancel endpoint yet; this is the change such a path would commit
+    private void cancel(OrderCreatedResponse order) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE orders SET status = 'CANCELLED' WHERE id = ?", order.id());
+            eventPublisher.publishEvent(new OrderStatusChangedEvent("carlos_pizzas", OrderStatus.PENDING,
+                    new OrderResponse(order.id(), order.totalAmount(), OrderStatus.CANCELLED.name(), order.createdAt(),
+                            order.items().stream()
+                                    .map(item -> new OrderItemResponse(item.pizzaId(), item.pizzaName(), null,
+                                            item.unitPrice(), item.quantity()))
+                                    .toList())));
+        });
+    }
+
+    private long[] totals(String sql) {
+        return jdbcTemplate.queryForObject(sql, (rs, row) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    private void awaitScannedThrough(long orderId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            Object fence = ((AtomicReference<?>) ReflectionTestUtils.getField(salesAnalytics, "fence")).get();
+            if (fence != null && (long) ReflectionTestUtils.getField(fence, "scannedThrough") >= orderId) return;
+
+            assertThat(System.nanoTime()).as("backfill reaching order %d", orderId).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}